@@ -1,15 +1,23 @@
 package com.example.conferencebooking.config;
 
+import com.example.conferencebooking.controller.ExportTimeoutInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.lang.NonNull;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebMvc
 public class AppConfig implements WebMvcConfigurer {
 
+    @Value("${conference.export.timeout:30m}")
+    private Duration exportTimeout;
+
     @Override
     public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/static/**")
@@ -17,4 +25,10 @@ public class AppConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/templates/**")
                 .addResourceLocations("classpath:/templates/");
     }
+
+    @Override
+    public void configureAsyncSupport(@NonNull AsyncSupportConfigurer configurer) {
+        // Streamed exports outlive the default async timeout
+        configurer.registerCallableInterceptors(new ExportTimeoutInterceptor(exportTimeout));
+    }
 } 
\ No newline at end of file
@@ -4,30 +4,59 @@ import com.example.conferencebooking.repository.BookingRepository;
 import com.example.conferencebooking.repository.ConferenceRepository;
 import com.example.conferencebooking.repository.UserRepository;
 import com.example.conferencebooking.repository.impl.BookingPostgresImpl;
+import com.example.conferencebooking.repository.impl.CachingConferenceRepository;
 import com.example.conferencebooking.repository.impl.ConferencePostgresImpl;
 import com.example.conferencebooking.repository.impl.UserPostgresImpl;
 import com.example.conferencebooking.service.BookingService;
 import com.example.conferencebooking.service.ConferenceService;
 import com.example.conferencebooking.service.UserService;
+import com.example.conferencebooking.service.expiry.BookingExpiryScheduler;
+import com.example.conferencebooking.service.expiry.ConferenceStartScheduler;
 import com.example.conferencebooking.service.impl.BookingServiceImpl;
 import com.example.conferencebooking.service.impl.ConferenceServiceImpl;
+import com.example.conferencebooking.service.idempotency.IdempotencyStore;
+import com.example.conferencebooking.service.index.ConferenceIntervalIndex;
+import com.example.conferencebooking.service.index.ConferenceSearchIndex;
+import com.example.conferencebooking.service.idempotency.InMemoryIdempotencyStore;
+import com.example.conferencebooking.service.idempotency.PostgresIdempotencyStore;
 import com.example.conferencebooking.service.impl.UserServiceImpl;
+import com.example.conferencebooking.service.lock.ConferenceLockManager;
+import com.example.conferencebooking.service.search.ConferenceSearchBackend;
+import com.example.conferencebooking.service.search.DatabaseConferenceSearch;
+import com.example.conferencebooking.service.slot.SlotCounterCache;
+import com.example.conferencebooking.service.suggestion.TopicAffinityIndex;
 import com.example.conferencebooking.service.validator.BookingValidator;
 import com.example.conferencebooking.service.validator.ConferenceValidator;
 import com.example.conferencebooking.service.validator.UserValidator;
+import com.example.conferencebooking.service.waitlist.InMemoryWaitlistEngine;
+import com.example.conferencebooking.service.waitlist.PostgresWaitlistEngine;
+import com.example.conferencebooking.service.waitlist.RabbitWaitlistEngine;
+import com.example.conferencebooking.service.waitlist.WaitlistEngine;
+import com.example.conferencebooking.service.waitlist.WaitlistPublisher;
+import com.example.conferencebooking.service.waitlist.WaitlistQueueRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.amqp.core.AmqpAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.context.annotation.Lazy;
 
+import java.time.Duration;
+
 @Configuration
 public class BeanConfig {
 
 
     @Bean
-    public ConferenceRepository conferenceRepository(JdbcTemplate jdbcTemplate) {
-        return new ConferencePostgresImpl(jdbcTemplate);
+    public ConferenceRepository conferenceRepository(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${conference.cache.max-size:10000}") long maxSize,
+            @Value("${conference.cache.ttl:5m}") Duration ttl) {
+        return new CachingConferenceRepository(new ConferencePostgresImpl(jdbcTemplate), meterRegistry, maxSize, ttl);
     }
 
     @Bean
@@ -40,12 +69,97 @@ public class BeanConfig {
         return new UserPostgresImpl(jdbcTemplate);
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "booking.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(
+            @Value("${booking.idempotency.ttl:24h}") Duration ttl,
+            @Value("${booking.idempotency.max-size:100000}") long maxSize) {
+        return new InMemoryIdempotencyStore(ttl, maxSize);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "booking.idempotency.store", havingValue = "postgres")
+    public IdempotencyStore postgresIdempotencyStore(
+            JdbcTemplate jdbcTemplate,
+            @Value("${booking.idempotency.ttl:24h}") Duration ttl) {
+        return new PostgresIdempotencyStore(jdbcTemplate, ttl);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "booking.waitlist.engine", havingValue = "rabbitmq", matchIfMissing = true)
+    public WaitlistPublisher waitlistPublisher(
+            RabbitTemplate rabbitTemplate,
+            @Value("${booking.waitlist.publisher.stripes:4}") int stripes,
+            @Value("${booking.waitlist.publisher.batch-size:100}") int batchSize,
+            @Value("${booking.waitlist.publisher.max-in-flight:1000}") int maxInFlight,
+            @Value("${booking.waitlist.publisher.confirm-timeout:5s}") Duration confirmTimeout,
+            @Value("${booking.waitlist.publisher.max-attempts:3}") int maxAttempts) {
+        return new WaitlistPublisher(rabbitTemplate, stripes, batchSize, maxInFlight, confirmTimeout, maxAttempts);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "booking.waitlist.engine", havingValue = "rabbitmq", matchIfMissing = true)
+    public WaitlistQueueRegistry waitlistQueueRegistry(
+            AmqpAdmin amqpAdmin,
+            ConferenceRepository conferenceRepository) {
+        return new WaitlistQueueRegistry(amqpAdmin, conferenceRepository);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "booking.waitlist.engine", havingValue = "rabbitmq", matchIfMissing = true)
+    public WaitlistEngine rabbitWaitlistEngine(
+            RabbitTemplate rabbitTemplate,
+            AmqpAdmin amqpAdmin,
+            BookingRepository bookingRepository,
+            ConferenceRepository conferenceRepository,
+            IdempotencyStore idempotencyStore,
+            WaitlistPublisher waitlistPublisher,
+            WaitlistQueueRegistry waitlistQueueRegistry,
+            @Value("${booking.waitlist.recovery.interval:10s}") Duration recoveryInterval,
+            @Value("${booking.waitlist.recovery.grace:1m}") Duration recoveryGrace,
+            @Value("${booking.waitlist.recovery.batch-size:500}") int recoveryBatchSize) {
+        return new RabbitWaitlistEngine(rabbitTemplate, amqpAdmin, bookingRepository, conferenceRepository,
+            idempotencyStore, waitlistPublisher, waitlistQueueRegistry,
+            recoveryInterval, recoveryGrace, recoveryBatchSize);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "booking.waitlist.engine", havingValue = "postgres")
+    public WaitlistEngine postgresWaitlistEngine(JdbcTemplate jdbcTemplate) {
+        return new PostgresWaitlistEngine(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "booking.waitlist.engine", havingValue = "memory")
+    public WaitlistEngine inMemoryWaitlistEngine(BookingRepository bookingRepository) {
+        return new InMemoryWaitlistEngine(bookingRepository);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "conference.search.backend", havingValue = "index", matchIfMissing = true)
+    public ConferenceSearchBackend conferenceSearchIndex(ConferenceRepository conferenceRepository) {
+        return new ConferenceSearchIndex(conferenceRepository);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "conference.search.backend", havingValue = "database")
+    public ConferenceSearchBackend databaseConferenceSearch(ConferenceRepository conferenceRepository) {
+        return new DatabaseConferenceSearch(conferenceRepository);
+    }
+
     @Bean
     public ConferenceService conferenceService(
             ConferenceRepository conferenceRepository, 
             ConferenceValidator conferenceValidator,
-            @Lazy BookingService bookingService) {
-        return new ConferenceServiceImpl(conferenceRepository, conferenceValidator, bookingService);
+            @Lazy BookingService bookingService,
+            ConferenceIntervalIndex conferenceIntervalIndex,
+            SlotCounterCache slotCounterCache,
+            ConferenceStartScheduler conferenceStartScheduler,
+            ConferenceSearchBackend conferenceSearchBackend,
+            TopicAffinityIndex topicAffinityIndex) {
+        return new ConferenceServiceImpl(conferenceRepository, conferenceValidator, bookingService,
+            conferenceIntervalIndex, slotCounterCache, conferenceStartScheduler, conferenceSearchBackend,
+            topicAffinityIndex);
     }
 
     @Bean
@@ -54,13 +168,21 @@ public class BeanConfig {
             ConferenceService conferenceService,
             UserService userService,
             BookingValidator bookingValidator,
-            RabbitTemplate rabbitTemplate) {
+            ConferenceLockManager conferenceLockManager,
+            SlotCounterCache slotCounterCache,
+            WaitlistEngine waitlistEngine,
+            BookingExpiryScheduler bookingExpiryScheduler,
+            TopicAffinityIndex topicAffinityIndex) {
         return new BookingServiceImpl(
             bookingRepository,
             conferenceService,
             userService,
             bookingValidator,
-            rabbitTemplate
+            conferenceLockManager,
+            slotCounterCache,
+            waitlistEngine,
+            bookingExpiryScheduler,
+            topicAffinityIndex
         );
     }
 
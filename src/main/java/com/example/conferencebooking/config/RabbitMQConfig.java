@@ -14,10 +14,13 @@ import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.example.conferencebooking.message.BookingMessageConverter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -46,6 +49,8 @@ public class RabbitMQConfig {
         connectionFactory.setPort(port);
         connectionFactory.setUsername(username);
         connectionFactory.setPassword(password);
+        // Needed for the confirm callback below and the waitlist publisher's confirms
+        connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
         return connectionFactory;
     }
 
@@ -67,46 +72,51 @@ public class RabbitMQConfig {
     }
 
     @Bean
-    public Jackson2JsonMessageConverter messageConverter() {
+    public MessageConverter messageConverter() {
         ObjectMapper mapper = new ObjectMapper()
             .registerModule(new JavaTimeModule())
             .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        return new Jackson2JsonMessageConverter(mapper);
+        // Waitlist messages use the compact binary codec, anything else stays JSON
+        return new BookingMessageConverter(new Jackson2JsonMessageConverter(mapper));
     }
 
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
-            ConnectionFactory connectionFactory) {
+            ConnectionFactory connectionFactory,
+            @Value("${booking.waitlist.engine:rabbitmq}") String waitlistEngine,
+            @Value("${booking.waitlist.consumer.prefetch:50}") int prefetch,
+            @Value("${booking.waitlist.consumer.batch-size:50}") int batchSize,
+            @Value("${booking.waitlist.consumer.min-consumers:1}") int minConsumers,
+            @Value("${booking.waitlist.consumer.max-consumers:5}") int maxConsumers,
+            @Value("${booking.waitlist.consumer.consecutive-active-trigger:10}") int consecutiveActiveTrigger,
+            @Value("${booking.waitlist.consumer.consecutive-idle-trigger:10}") int consecutiveIdleTrigger) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
-        factory.setConcurrentConsumers(3);
-        factory.setMaxConcurrentConsumers(5);
-        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
-        factory.setPrefetchCount(1);
+        // Without the RabbitMQ waitlist engine nothing is published, so don't connect at all
+        factory.setAutoStartup("rabbitmq".equals(waitlistEngine));
+        // Consumers are added while deliveries keep arriving back to back (a backlog)
+        // and removed again after that many idle receives
+        factory.setConcurrentConsumers(minConsumers);
+        factory.setMaxConcurrentConsumers(maxConsumers);
+        factory.setConsecutiveActiveTrigger(consecutiveActiveTrigger);
+        factory.setConsecutiveIdleTrigger(consecutiveIdleTrigger);
+        // Listeners ack themselves, once per batch
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
         factory.setMessageConverter(messageConverter());
         return factory;
     }
 
     @Bean
-    public Queue waitlistQueue(AmqpAdmin amqpAdmin) {
-        try {
-            // Try to delete if exists
-            try {
-                amqpAdmin.deleteQueue("conference.waitlist");
-            } catch (Exception e) {
-                log.warn("Queue deletion failed, might not exist: {}", e.getMessage());
-            }
-            
-            // Create queue with FIFO properties
-            Map<String, Object> args = new HashMap<>();
-            args.put("x-max-priority", 1);
-            Queue queue = new Queue("conference.waitlist", true, false, false, args);
-            amqpAdmin.declareQueue(queue);
-            log.info("Successfully initialized RabbitMQ queue");
-            return queue;
-        } catch (Exception e) {
-            log.error("Failed to initialize RabbitMQ queue: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to initialize queue", e);
-        }
+    @ConditionalOnProperty(name = "booking.waitlist.engine", havingValue = "rabbitmq", matchIfMissing = true)
+    public Queue waitlistQueue() {
+        // Declared by the RabbitAdmin whenever a connection opens; an existing queue and
+        // its messages are kept across restarts
+        Map<String, Object> args = new HashMap<>();
+        args.put("x-max-priority", 1);
+        return new Queue("conference.waitlist", true, false, false, args);
     }
 } 
\ No newline at end of file
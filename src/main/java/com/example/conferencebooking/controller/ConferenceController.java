@@ -1,5 +1,6 @@
 package com.example.conferencebooking.controller;
 
+import com.example.conferencebooking.dto.ConferencePageDTO;
 import com.example.conferencebooking.dto.ConferenceRequestDTO;
 import com.example.conferencebooking.dto.ConferenceSearchDTO;
 import com.example.conferencebooking.entity.Conference;
@@ -10,6 +11,7 @@ import com.example.conferencebooking.exception.ValidationException;
 import com.example.conferencebooking.mapper.ConferenceMapper;
 import com.example.conferencebooking.service.ConferenceService;
 import com.example.conferencebooking.service.BookingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +19,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import jakarta.servlet.http.HttpSession;
 import java.util.List;
@@ -27,15 +30,20 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class ConferenceController {
+    // Conferences per page of the conferences/list view
+    private static final int VIEW_PAGE_SIZE = 20;
+
     private final ConferenceService conferenceService;
     private final ConferenceMapper conferenceMapper;
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     // View endpoints
     @GetMapping("/conferences")
-    public String listConferences(Model model, HttpSession session) {
+    public String listConferences(@RequestParam(required = false) String cursor, Model model, HttpSession session) {
         User user = (User) session.getAttribute("user");
-        List<Conference> conferences = conferenceService.getAllConferences();
+        ConferencePageDTO page = conferenceService.getConferencePage(cursor, VIEW_PAGE_SIZE);
+        List<Conference> conferences = page.getConferences();
         
         if (user != null) {
             List<Booking> userBookings = bookingService.getUserBookings(user.getId());
@@ -52,6 +60,8 @@ public class ConferenceController {
         }
         
         model.addAttribute("availableConferences", conferences);
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("firstPage", cursor == null || cursor.isEmpty());
         model.addAttribute("user", user);
         return "conferences/list";
     }
@@ -97,10 +107,22 @@ public class ConferenceController {
         return ResponseEntity.ok(conferenceService.getConference(id));
     }
 
+    // Pass size (and then the returned nextCursor) to page through the conferences by
+    // (start time, id); without either the whole list is returned as before
     @GetMapping("/api/conferences")
     @ResponseBody
-    public ResponseEntity<List<Conference>> getAllConferences() {
-        return ResponseEntity.ok(conferenceService.getAllConferences());
+    public ResponseEntity<?> getAllConferences(@RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false) String cursor) {
+        if (size == null && cursor == null) {
+            return ResponseEntity.ok(conferenceService.getAllConferences());
+        }
+        return ResponseEntity.ok(conferenceService.getConferencePage(cursor, size != null ? size : VIEW_PAGE_SIZE));
+    }
+
+    // Full catalog export, one JSON conference per line, in constant memory
+    @GetMapping("/api/conferences/export")
+    public ResponseEntity<StreamingResponseBody> exportConferences() {
+        return NdjsonResponses.stream(objectMapper, conferenceService::exportConferences);
     }
 
     @DeleteMapping("/api/conferences/{id}")
@@ -112,15 +134,25 @@ public class ConferenceController {
 
     @PostMapping("/api/conferences/search")
     @ResponseBody
-    public ResponseEntity<List<Conference>> searchConferences(@RequestBody ConferenceSearchDTO searchDTO, HttpSession session) {
+    public ResponseEntity<?> searchConferences(@RequestBody ConferenceSearchDTO searchDTO,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false) String cursor,
+                                               HttpSession session) {
         try {
             User user = (User) session.getAttribute("user");
             if (user != null) {
                 searchDTO.setUserId(user.getId());
             }
             
-            List<Conference> results = conferenceService.searchConferences(searchDTO);
-            return ResponseEntity.ok(results);
+            if (size == null && cursor == null) {
+                List<Conference> results = conferenceService.searchConferences(searchDTO);
+                return ResponseEntity.ok(results);
+            }
+            ConferencePageDTO page = conferenceService.searchConferencePage(
+                searchDTO, cursor, size != null ? size : VIEW_PAGE_SIZE);
+            return ResponseEntity.ok(page);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error searching conferences: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
@@ -0,0 +1,31 @@
+package com.example.conferencebooking.controller;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Gives streamed NDJSON exports their own async timeout. Every other async request keeps
+ * the default, which is far too short to stream a full catalog.
+ */
+public class ExportTimeoutInterceptor implements CallableProcessingInterceptor {
+    private final Duration timeout;
+
+    public ExportTimeoutInterceptor(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        // Runs before async processing starts, while the timeout can still be changed
+        boolean export = Boolean.TRUE.equals(
+            request.getAttribute(NdjsonResponses.EXPORT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+        if (export && request instanceof AsyncWebRequest asyncRequest) {
+            asyncRequest.setTimeout(timeout.toMillis());
+        }
+    }
+}
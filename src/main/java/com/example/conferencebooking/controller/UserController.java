@@ -5,10 +5,12 @@ import com.example.conferencebooking.dto.UserResponseDTO;
 import com.example.conferencebooking.entity.User;
 import com.example.conferencebooking.mapper.UserMapper;
 import com.example.conferencebooking.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes; 
 import jakarta.servlet.http.HttpSession;
 import java.util.List;
@@ -21,6 +23,7 @@ import java.util.Optional;
 public class UserController {
     private final UserService userService;
     private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/api/users")
     @ResponseBody
@@ -51,6 +54,13 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    // Full user export, one JSON user per line, in constant memory
+    @GetMapping("/api/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return NdjsonResponses.<UserResponseDTO>stream(objectMapper,
+            consumer -> userService.exportUsers(user -> consumer.accept(userMapper.toDto(user))));
+    }
+
     @DeleteMapping("/api/users/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable String id) {
         userService.deleteUser(id);
@@ -0,0 +1,43 @@
+package com.example.conferencebooking.dto;
+
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a conference listing ordered by (start_timestamp, id): the key of the last
+ * conference on the previous page. Sent to clients as an opaque URL-safe token.
+ */
+public record ConferenceCursor(LocalDateTime startTimestamp, String id) {
+    private static final char SEPARATOR = '|';
+
+    public static ConferenceCursor of(Conference conference) {
+        return new ConferenceCursor(conference.getStartTimestamp(), conference.getId());
+    }
+
+    // Null or empty means "from the beginning"
+    public static ConferenceCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ValidationException("Invalid page cursor");
+            }
+            return new ConferenceCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid page cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = startTimestamp + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.conferencebooking.dto;
+
+import com.example.conferencebooking.entity.Conference;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConferencePageDTO {
+    private List<Conference> conferences;
+    // Cursor for the following page; null on the last page
+    private String nextCursor;
+}
@@ -20,6 +20,14 @@ public class Booking implements Serializable {
     private String conferenceId;
     private LocalDateTime bookingTime;
     private BookingStatus status;
+
+    // Waitlist ordering score: lower tier first, then fewer expired confirmation
+    // windows, then earlier original waitlist time
+    @Builder.Default
+    private int waitlistTier = 0;
+    @Builder.Default
+    private int waitlistRetries = 0;
+    private LocalDateTime waitlistedAt;
     
     @Builder.Default
     private transient Conference conference = null;
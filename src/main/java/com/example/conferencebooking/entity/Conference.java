@@ -17,7 +17,7 @@ import java.util.ArrayList;
 @Entity
 @Table(name = "conferences")
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Conference {
@@ -0,0 +1,77 @@
+package com.example.conferencebooking.message;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format of waitlist messages. Version 1 is fixed-layout binary:
+ * <pre>
+ *   byte 0      format version (1)
+ *   bytes 1-2   length of the booking id in bytes, unsigned big-endian
+ *   bytes 3..   booking id, UTF-8
+ * </pre>
+ * Messages published before this format existed are JSON ({"bookingId":"..."}); they
+ * start with '{', which is never a valid version byte, and are still decoded.
+ */
+public final class BookingMessageCodec {
+    public static final String CONTENT_TYPE = "application/x-booking-message";
+    public static final byte VERSION = 1;
+
+    private static final int HEADER_LENGTH = 3;
+    private static final int MAX_ID_LENGTH = 0xFFFF;
+    private static final ObjectMapper LEGACY_JSON = new ObjectMapper();
+
+    private BookingMessageCodec() {
+    }
+
+    public static byte[] encode(BookingMessage message) {
+        byte[] id = message.getBookingId().getBytes(StandardCharsets.UTF_8);
+        if (id.length > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Booking id too long: " + id.length + " bytes");
+        }
+        byte[] body = new byte[HEADER_LENGTH + id.length];
+        body[0] = VERSION;
+        body[1] = (byte) (id.length >>> 8);
+        body[2] = (byte) id.length;
+        System.arraycopy(id, 0, body, HEADER_LENGTH, id.length);
+        return body;
+    }
+
+    public static BookingMessage decode(byte[] body) {
+        return new BookingMessage(decodeBookingId(body));
+    }
+
+    /**
+     * Reads just the booking id; for the binary format the id string is the only allocation.
+     */
+    public static String decodeBookingId(byte[] body) {
+        if (body.length == 0) {
+            throw new IllegalArgumentException("Empty booking message");
+        }
+        if (body[0] == '{') {
+            return decodeLegacyJson(body);
+        }
+        if (body[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported booking message version: " + body[0]);
+        }
+        if (body.length < HEADER_LENGTH) {
+            throw new IllegalArgumentException("Truncated booking message header");
+        }
+        int length = ((body[1] & 0xFF) << 8) | (body[2] & 0xFF);
+        if (body.length != HEADER_LENGTH + length) {
+            throw new IllegalArgumentException("Booking message length " + body.length
+                + " does not match id length " + length);
+        }
+        return new String(body, HEADER_LENGTH, length, StandardCharsets.UTF_8);
+    }
+
+    private static String decodeLegacyJson(byte[] body) {
+        try {
+            return LEGACY_JSON.readValue(body, BookingMessage.class).getBookingId();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed JSON booking message", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.conferencebooking.message;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Writes and reads BookingMessage with BookingMessageCodec, so producers and consumers
+ * share one format. Anything else is handed to the delegate converter.
+ */
+public class BookingMessageConverter implements MessageConverter {
+    private final MessageConverter delegate;
+
+    public BookingMessageConverter(MessageConverter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (object instanceof BookingMessage bookingMessage) {
+            messageProperties.setContentType(BookingMessageCodec.CONTENT_TYPE);
+            messageProperties.setHeader("booking-message-version", BookingMessageCodec.VERSION);
+            return new Message(BookingMessageCodec.encode(bookingMessage), messageProperties);
+        }
+        return delegate.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        if (BookingMessageCodec.CONTENT_TYPE.equals(properties.getContentType())
+                || BookingMessage.class.getName().equals(properties.getHeader("__TypeId__"))) {
+            try {
+                return BookingMessageCodec.decode(message.getBody());
+            } catch (IllegalArgumentException e) {
+                throw new MessageConversionException("Cannot decode booking message", e);
+            }
+        }
+        return delegate.fromMessage(message);
+    }
+}
@@ -2,6 +2,8 @@ package com.example.conferencebooking.repository;
 
 import com.example.conferencebooking.entity.Booking;
 import com.example.conferencebooking.entity.BookingStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +15,13 @@ public interface BookingRepository {
     void deleteById(String id);
     List<Booking> findByConferenceIdAndStatus(String conferenceId, BookingStatus status);
     List<Booking> findByStatus(BookingStatus status);
+    Optional<Booking> findActiveBooking(String userId, String conferenceId);
+    boolean hasOverlappingConfirmedBooking(String userId, String conferenceId);
+    List<String> cancelWaitlistedBookings(String userId, Collection<String> conferenceIds);
+    List<String> cancelAllWaitlistedBookings(String conferenceId);
+    List<String> findStartedConferenceIdsWithWaitlist(LocalDateTime now);
+    List<String> promoteWaitlistedBookings(Collection<String> ids, LocalDateTime bookingTime);
+    List<Booking> requeueExpiredBookings(Collection<String> ids, LocalDateTime processingBefore, LocalDateTime bookingTime);
+    List<Booking> findUnpublishedWaitlistedBookings(LocalDateTime waitlistedBefore, int limit);
+    void markWaitlistPublished(Collection<Booking> bookings);
 } 
\ No newline at end of file
@@ -1,15 +1,50 @@
 package com.example.conferencebooking.repository;
 
+import com.example.conferencebooking.dto.ConferenceCursor;
+import com.example.conferencebooking.dto.ConferenceSearchDTO;
 import com.example.conferencebooking.entity.Conference;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
-// Using locks here can prevent duplicates. In the interest of time,
-// skipping this since I already used transactional in the service layer.
-//Versioning is another choice.
+// save() is version-checked: a conference read from the database carries its
+// version, and writing it back fails with OptimisticLockingFailureException
+// if someone else updated the row in between. New conferences have no version.
 public interface ConferenceRepository {
     Conference save(Conference conference);
     Optional<Conference> findById(String id);
     List<Conference> findAll();
+
+    // Hands every conference to the consumer as its row is read, ordered by
+    // (start_timestamp, id), without building a list. Rows are fetched in batches only
+    // inside a transaction; otherwise the driver reads the whole result first.
+    void streamAll(Consumer<Conference> consumer);
+
+    List<Conference> findAllByIds(Collection<String> ids);
     void deleteById(String id);
+
+    // Atomically takes one seat if any is left. Returns the remaining slot
+    // count, or empty when the conference is already full.
+    Optional<Integer> reserveSeat(String conferenceId);
+
+    // Sets waitlist_queue_id only if it is still unset, without touching other columns.
+    // Returns false if the conference already had a queue.
+    boolean assignWaitlistQueue(String conferenceId, String queueId);
+
+    // Adds each delta to available_slots in one batch (used by the write-behind slot counter)
+    void adjustAvailableSlots(Map<String, Integer> deltas);
+
+    // Conferences matching every filter of the search, sorted for its timeframe;
+    // "upcoming" and "past" are relative to now
+    List<Conference> search(ConferenceSearchDTO searchDTO, LocalDateTime now);
+
+    // Keyset pages ordered by (start_timestamp, id): up to limit conferences after the
+    // cursor, or from the start when the cursor is null
+    List<Conference> findPage(ConferenceCursor after, int limit);
+
+    // Like search, one keyset page at a time; "past" pages run newest first
+    List<Conference> searchPage(ConferenceSearchDTO searchDTO, LocalDateTime now, ConferenceCursor after, int limit);
 } 
\ No newline at end of file
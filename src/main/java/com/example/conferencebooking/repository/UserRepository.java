@@ -4,12 +4,17 @@ import com.example.conferencebooking.entity.User;
 import com.example.conferencebooking.entity.Booking;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserRepository {
     User save(User user);
     Optional<User> findById(String id);
     Optional<User> findByEmail(String email);
     List<User> findAll();
+
+    // Hands every user to the consumer as its row is read, ordered by id, without
+    // building a list. Rows are fetched in batches only inside a transaction.
+    void streamAll(Consumer<User> consumer);
     void deleteById(String id);
     List<Booking> findUserBookings(String userId);
 } 
\ No newline at end of file
@@ -10,6 +10,9 @@ import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +28,11 @@ public class BookingPostgresImpl implements BookingRepository {
             .conferenceId(rs.getString("conference_id"))
             .bookingTime(rs.getTimestamp("booking_time").toLocalDateTime())
             .status(BookingStatus.valueOf(rs.getString("status")))
+            .waitlistTier(rs.getInt("waitlist_tier"))
+            .waitlistRetries(rs.getInt("waitlist_retries"))
+            .waitlistedAt(Optional.ofNullable(rs.getTimestamp("waitlisted_at"))
+                .map(Timestamp::toLocalDateTime)
+                .orElse(null))
             .build();
 
     @Autowired
@@ -34,20 +42,27 @@ public class BookingPostgresImpl implements BookingRepository {
 
     @Override
     public Booking save(Booking booking) {
-        String sql = "INSERT INTO bookings (id, user_id, conference_id, booking_time, status) " +
-                    "VALUES (?, ?, ?, ?, ?) " +
+        // Waitlist tier and retries are only changed by the targeted updates below,
+        // so a copy read without them never resets them
+        String sql = "INSERT INTO bookings (id, user_id, conference_id, booking_time, status, " +
+                    "waitlist_tier, waitlist_retries, waitlisted_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
                     "ON CONFLICT (id) DO UPDATE SET " +
                     "user_id = EXCLUDED.user_id, " +
                     "conference_id = EXCLUDED.conference_id, " +
                     "booking_time = EXCLUDED.booking_time, " +
-                    "status = EXCLUDED.status";
+                    "status = EXCLUDED.status, " +
+                    "waitlisted_at = COALESCE(bookings.waitlisted_at, EXCLUDED.waitlisted_at)";
         
         jdbcTemplate.update(sql,
                 booking.getId(),
                 booking.getUserId(),
                 booking.getConferenceId(),
                 booking.getBookingTime(),
-                booking.getStatus().toString());
+                booking.getStatus().toString(),
+                booking.getWaitlistTier(),
+                booking.getWaitlistRetries(),
+                booking.getWaitlistedAt());
         
         return booking;
     }
@@ -123,4 +138,132 @@ public class BookingPostgresImpl implements BookingRepository {
         String sql = "SELECT * FROM bookings WHERE status = ?::booking_status";
         return jdbcTemplate.query(sql, bookingRowMapper, status.name());
     }
-} 
\ No newline at end of file
+
+    @Override
+    public Optional<Booking> findActiveBooking(String userId, String conferenceId) {
+        // Matches the predicate of uq_bookings_active_user_conference so it is a single index probe
+        String sql = """
+            SELECT * FROM bookings
+            WHERE user_id = ? AND conference_id = ? AND status <> 'CANCELLED'
+            LIMIT 1
+        """;
+        List<Booking> bookings = jdbcTemplate.query(sql, bookingRowMapper, userId, conferenceId);
+        return bookings.isEmpty() ? Optional.empty() : Optional.of(bookings.get(0));
+    }
+
+    @Override
+    public boolean hasOverlappingConfirmedBooking(String userId, String conferenceId) {
+        String sql = """
+            SELECT EXISTS (
+                SELECT 1
+                FROM conferences target
+                JOIN conferences c
+                    ON tsrange(c.start_timestamp, c.end_timestamp, '[]')
+                    && tsrange(target.start_timestamp, target.end_timestamp, '[]')
+                JOIN bookings b ON b.conference_id = c.id
+                WHERE target.id = ?
+                  AND c.id <> target.id
+                  AND b.user_id = ?
+                  AND b.status = 'CONFIRMED'
+            )
+        """;
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, conferenceId, userId));
+    }
+
+    @Override
+    public List<String> cancelWaitlistedBookings(String userId, Collection<String> conferenceIds) {
+        String sql = """
+            UPDATE bookings SET status = 'CANCELLED'
+            WHERE user_id = ? AND conference_id = ANY(?) AND status = 'WAITLISTED'
+            RETURNING id
+        """;
+        return jdbcTemplate.query(sql,
+            ps -> {
+                ps.setString(1, userId);
+                ps.setArray(2, ps.getConnection().createArrayOf("varchar", conferenceIds.toArray()));
+            },
+            (rs, rowNum) -> rs.getString("id"));
+    }
+
+    @Override
+    public List<String> promoteWaitlistedBookings(Collection<String> ids, LocalDateTime bookingTime) {
+        // Bookings that left the waitlist in the meantime are not updated and not returned
+        String sql = """
+            UPDATE bookings SET status = 'PROCESSING', booking_time = ?
+            WHERE id = ANY(?) AND status = 'WAITLISTED'
+            RETURNING id
+        """;
+        return jdbcTemplate.query(sql,
+            ps -> {
+                ps.setTimestamp(1, Timestamp.valueOf(bookingTime));
+                ps.setArray(2, ps.getConnection().createArrayOf("varchar", ids.toArray()));
+            },
+            (rs, rowNum) -> rs.getString("id"));
+    }
+
+    @Override
+    public List<Booking> requeueExpiredBookings(Collection<String> ids, LocalDateTime processingBefore,
+                                                LocalDateTime bookingTime) {
+        // Only bookings still in PROCESSING since before the cutoff; ones confirmed or
+        // promoted again in the meantime are left alone. They keep their original
+        // waitlist time and count one more retry.
+        String sql = """
+            UPDATE bookings
+            SET status = 'WAITLISTED', booking_time = ?, waitlist_retries = waitlist_retries + 1,
+                waitlisted_at = COALESCE(waitlisted_at, booking_time), waitlist_published = FALSE
+            WHERE id = ANY(?) AND status = 'PROCESSING' AND booking_time <= ?
+            RETURNING *
+        """;
+        return jdbcTemplate.query(sql,
+            ps -> {
+                ps.setTimestamp(1, Timestamp.valueOf(bookingTime));
+                ps.setArray(2, ps.getConnection().createArrayOf("varchar", ids.toArray()));
+                ps.setTimestamp(3, Timestamp.valueOf(processingBefore));
+            },
+            bookingRowMapper);
+    }
+
+    @Override
+    public List<Booking> findUnpublishedWaitlistedBookings(LocalDateTime waitlistedBefore, int limit) {
+        // Oldest first, the order their queue messages were meant to be published in
+        String sql = """
+            SELECT * FROM bookings
+            WHERE status = 'WAITLISTED' AND NOT waitlist_published AND booking_time < ?
+            ORDER BY booking_time, id
+            LIMIT ?
+        """;
+        return jdbcTemplate.query(sql, bookingRowMapper, Timestamp.valueOf(waitlistedBefore), limit);
+    }
+
+    @Override
+    public void markWaitlistPublished(Collection<Booking> bookings) {
+        // Matched on booking time as well, so a late confirm never covers a booking that was
+        // waitlisted again since
+        List<Object[]> args = bookings.stream()
+            .map(booking -> new Object[] {booking.getId(), Timestamp.valueOf(booking.getBookingTime())})
+            .toList();
+        jdbcTemplate.batchUpdate(
+            "UPDATE bookings SET waitlist_published = TRUE WHERE id = ? AND booking_time = ?", args);
+    }
+
+    @Override
+    public List<String> cancelAllWaitlistedBookings(String conferenceId) {
+        String sql = """
+            UPDATE bookings SET status = 'CANCELLED'
+            WHERE conference_id = ? AND status = 'WAITLISTED'
+            RETURNING id
+        """;
+        return jdbcTemplate.queryForList(sql, String.class, conferenceId);
+    }
+
+    @Override
+    public List<String> findStartedConferenceIdsWithWaitlist(LocalDateTime now) {
+        String sql = """
+            SELECT DISTINCT b.conference_id
+            FROM bookings b
+            JOIN conferences c ON c.id = b.conference_id
+            WHERE b.status = 'WAITLISTED' AND c.start_timestamp <= ?
+        """;
+        return jdbcTemplate.queryForList(sql, String.class, Timestamp.valueOf(now));
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.conferencebooking.repository.impl;
+
+import com.example.conferencebooking.dto.ConferenceCursor;
+import com.example.conferencebooking.dto.ConferenceSearchDTO;
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache in front of another ConferenceRepository. Lookups by id are
+ * served from a bounded Caffeine cache; every write through this repository evicts
+ * the affected entry so slot counts are re-read after a change. Inside a transaction the
+ * entry is evicted again after completion, since a concurrent reader may have cached the
+ * pre-commit row in between. Callers get their own
+ * copies, so mutating a returned conference never touches the cached one.
+ * Hit, miss and eviction counts are published as cache.* metrics with cache=conferences.
+ */
+public class CachingConferenceRepository implements ConferenceRepository {
+    private final ConferenceRepository delegate;
+    private final Cache<String, Conference> cache;
+
+    public CachingConferenceRepository(ConferenceRepository delegate,
+                                       MeterRegistry meterRegistry,
+                                       long maxSize,
+                                       Duration ttl) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "conferences");
+    }
+
+    @Override
+    public Conference save(Conference conference) {
+        try {
+            return delegate.save(conference);
+        } finally {
+            // Also evict on a version conflict: the cached copy may be what was stale
+            evict(conference.getId());
+        }
+    }
+
+    @Override
+    public Optional<Conference> findById(String id) {
+        Conference cached = cache.get(id, key -> delegate.findById(key).orElse(null));
+        return Optional.ofNullable(cached).map(this::copyOf);
+    }
+
+    @Override
+    public List<Conference> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void streamAll(Consumer<Conference> consumer) {
+        delegate.streamAll(consumer);
+    }
+
+    @Override
+    public List<Conference> findAllByIds(Collection<String> ids) {
+        Map<String, Conference> found = cache.getAll(ids, missing -> {
+            Map<String, Conference> loaded = new HashMap<>();
+            for (Conference conference : delegate.findAllByIds(new ArrayList<>(missing))) {
+                loaded.put(conference.getId(), conference);
+            }
+            return loaded;
+        });
+        return found.values().stream().map(this::copyOf).toList();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+        evict(id);
+    }
+
+    @Override
+    public Optional<Integer> reserveSeat(String conferenceId) {
+        Optional<Integer> remaining = delegate.reserveSeat(conferenceId);
+        evict(conferenceId);
+        return remaining;
+    }
+
+    @Override
+    public boolean assignWaitlistQueue(String conferenceId, String queueId) {
+        boolean assigned = delegate.assignWaitlistQueue(conferenceId, queueId);
+        evict(conferenceId);
+        return assigned;
+    }
+
+    @Override
+    public List<Conference> search(ConferenceSearchDTO searchDTO, LocalDateTime now) {
+        return delegate.search(searchDTO, now);
+    }
+
+    @Override
+    public List<Conference> findPage(ConferenceCursor after, int limit) {
+        return delegate.findPage(after, limit);
+    }
+
+    @Override
+    public List<Conference> searchPage(ConferenceSearchDTO searchDTO, LocalDateTime now,
+                                       ConferenceCursor after, int limit) {
+        return delegate.searchPage(searchDTO, now, after, limit);
+    }
+
+    @Override
+    public void adjustAvailableSlots(Map<String, Integer> deltas) {
+        delegate.adjustAvailableSlots(deltas);
+        deltas.keySet().forEach(this::evict);
+    }
+
+    private void evict(String id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    private Conference copyOf(Conference conference) {
+        return conference.toBuilder()
+                .topics(new ArrayList<>(conference.getTopics()))
+                .build();
+    }
+}
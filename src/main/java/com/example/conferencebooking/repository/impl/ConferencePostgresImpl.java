@@ -1,17 +1,26 @@
 package com.example.conferencebooking.repository.impl;
 
+import com.example.conferencebooking.dto.ConferenceCursor;
+import com.example.conferencebooking.dto.ConferenceSearchDTO;
 import com.example.conferencebooking.entity.Conference;
 import com.example.conferencebooking.repository.ConferenceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Repository
 public class ConferencePostgresImpl implements ConferenceRepository {
+    // Rows per round trip when streaming
+    private static final int STREAM_FETCH_SIZE = 500;
     
     private final JdbcTemplate jdbcTemplate;
     
@@ -33,6 +42,7 @@ public class ConferencePostgresImpl implements ConferenceRepository {
                 .availableSlots(rs.getInt("available_slots"))
                 .fullyBooked(rs.getBoolean("fully_booked"))
                 .waitlistQueueId(rs.getString("waitlist_queue_id"))
+                .version(rs.getLong("version"))
                 .build();
     };
 
@@ -43,10 +53,54 @@ public class ConferencePostgresImpl implements ConferenceRepository {
 
     @Override
     public Conference save(Conference conference) {
+        if (conference.getVersion() == null) {
+            return insert(conference);
+        }
+
+        String sql = """
+            UPDATE conferences SET 
+                name = ?, 
+                location = ?,
+                start_timestamp = ?,
+                end_timestamp = ?,
+                total_slots = ?,
+                available_slots = ?,
+                waitlist_queue_id = ?,
+                fully_booked = ?,
+                topics = ?::text[],
+                version = version + 1
+            WHERE id = ? AND version = ?
+        """;
+
+        int updated = jdbcTemplate.update(sql,
+            conference.getName(),
+            conference.getLocation(),
+            conference.getStartTimestamp(),
+            conference.getEndTimestamp(),
+            conference.getTotalSlots(),
+            conference.getAvailableSlots(),
+            conference.getWaitlistQueueId(),
+            conference.isFullyBooked(),
+            conference.getTopics().toArray(new String[0]),
+            conference.getId(),
+            conference.getVersion()
+        );
+
+        if (updated == 0) {
+            throw new OptimisticLockingFailureException(
+                "Conference " + conference.getId() + " was modified concurrently (expected version "
+                    + conference.getVersion() + ")");
+        }
+
+        conference.setVersion(conference.getVersion() + 1);
+        return conference;
+    }
+
+    private Conference insert(Conference conference) {
         String sql = """
             INSERT INTO conferences (id, name, location, start_timestamp, end_timestamp, 
-                total_slots, available_slots, waitlist_queue_id, fully_booked, topics) 
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?::text[]) 
+                total_slots, available_slots, waitlist_queue_id, fully_booked, topics, version) 
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?::text[], 0) 
             ON CONFLICT (id) DO UPDATE SET 
                 name = EXCLUDED.name, 
                 location = EXCLUDED.location,
@@ -56,10 +110,12 @@ public class ConferencePostgresImpl implements ConferenceRepository {
                 available_slots = EXCLUDED.available_slots,
                 waitlist_queue_id = EXCLUDED.waitlist_queue_id,
                 fully_booked = EXCLUDED.fully_booked,
-                topics = EXCLUDED.topics
+                topics = EXCLUDED.topics,
+                version = conferences.version + 1
+            RETURNING version
         """;
 
-        jdbcTemplate.update(sql,
+        Long version = jdbcTemplate.queryForObject(sql, Long.class,
             conference.getId(),
             conference.getName(),
             conference.getLocation(),
@@ -72,6 +128,7 @@ public class ConferencePostgresImpl implements ConferenceRepository {
             conference.getTopics().toArray(new String[0])
         );
 
+        conference.setVersion(version);
         return conference;
     }
 
@@ -88,12 +145,180 @@ public class ConferencePostgresImpl implements ConferenceRepository {
         return jdbcTemplate.query(sql, conferenceRowMapper);
     }
 
+    @Override
+    public void streamAll(Consumer<Conference> consumer) {
+        String sql = "SELECT * FROM conferences ORDER BY start_timestamp, id";
+        jdbcTemplate.query(
+            con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                ps.setFetchSize(STREAM_FETCH_SIZE);
+                return ps;
+            },
+            (RowCallbackHandler) rs -> consumer.accept(conferenceRowMapper.mapRow(rs, rs.getRow())));
+    }
+
+    @Override
+    public void adjustAvailableSlots(Map<String, Integer> deltas) {
+        String sql = """
+            UPDATE conferences
+            SET available_slots = available_slots + ?,
+                version = version + 1
+            WHERE id = ?
+        """;
+        List<Object[]> batch = new ArrayList<>();
+        deltas.forEach((id, delta) -> batch.add(new Object[] { delta, id }));
+        jdbcTemplate.batchUpdate(sql, batch);
+    }
+
+    @Override
+    public List<Conference> findAllByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT * FROM conferences WHERE id = ANY(?)";
+        return jdbcTemplate.query(sql,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", ids.toArray())),
+            conferenceRowMapper);
+    }
+
+    @Override
+    public List<Conference> search(ConferenceSearchDTO searchDTO, LocalDateTime now) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = searchQuery(searchDTO, now, params);
+        // Same order as searchPage, so both are served by the (start_timestamp, id) index
+        sql.append("past".equals(searchDTO.getTimeframe())
+            ? " ORDER BY start_timestamp DESC, id DESC"
+            : " ORDER BY start_timestamp, id");
+        return jdbcTemplate.query(sql.toString(), conferenceRowMapper, params.toArray());
+    }
+
+    @Override
+    public List<Conference> findPage(ConferenceCursor after, int limit) {
+        if (after == null) {
+            String sql = "SELECT * FROM conferences ORDER BY start_timestamp, id LIMIT ?";
+            return jdbcTemplate.query(sql, conferenceRowMapper, limit);
+        }
+        String sql = """
+            SELECT * FROM conferences
+            WHERE (start_timestamp, id) > (?, ?)
+            ORDER BY start_timestamp, id
+            LIMIT ?
+        """;
+        return jdbcTemplate.query(sql, conferenceRowMapper, after.startTimestamp(), after.id(), limit);
+    }
+
+    @Override
+    public List<Conference> searchPage(ConferenceSearchDTO searchDTO, LocalDateTime now,
+                                       ConferenceCursor after, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = searchQuery(searchDTO, now, params);
+        boolean newestFirst = "past".equals(searchDTO.getTimeframe());
+        if (after != null) {
+            // Row comparison, so the (start_timestamp, id) index seeks straight to the page
+            sql.append(newestFirst ? " AND (start_timestamp, id) < (?, ?)" : " AND (start_timestamp, id) > (?, ?)");
+            params.add(after.startTimestamp());
+            params.add(after.id());
+        }
+        sql.append(newestFirst
+            ? " ORDER BY start_timestamp DESC, id DESC LIMIT ?"
+            : " ORDER BY start_timestamp, id LIMIT ?");
+        params.add(limit);
+        return jdbcTemplate.query(sql.toString(), conferenceRowMapper, params.toArray());
+    }
+
+    // SELECT with every filter of the search as a WHERE condition, without ordering
+    private StringBuilder searchQuery(ConferenceSearchDTO searchDTO, LocalDateTime now, List<Object> params) {
+        // Substring filters become ILIKE '%...%' and are served by the pg_trgm indexes;
+        // the date and timeframe filters and the ordering use the (start_timestamp, id) btree.
+        // A conference ends after it starts, so every bound on end_timestamp also bounds
+        // start_timestamp, which lets the btree range scan stop early.
+        StringBuilder sql = new StringBuilder("SELECT * FROM conferences WHERE TRUE");
+
+        if (searchDTO.getName() != null && !searchDTO.getName().isEmpty()) {
+            sql.append(" AND name ILIKE ?");
+            params.add(containsPattern(searchDTO.getName()));
+        }
+        if (searchDTO.getLocation() != null && !searchDTO.getLocation().isEmpty()) {
+            sql.append(" AND location ILIKE ?");
+            params.add(containsPattern(searchDTO.getLocation()));
+        }
+        if (searchDTO.getTopics() != null && !searchDTO.getTopics().isEmpty()) {
+            // One ILIKE per search topic, ORed, so each can use the topics index
+            StringJoiner anyTopic = new StringJoiner(" OR ", " AND (", ")");
+            for (String topic : searchDTO.getTopics()) {
+                anyTopic.add("conference_topics_text(topics) ILIKE ?");
+                params.add(containsPattern(topic));
+            }
+            sql.append(anyTopic);
+        }
+        if (searchDTO.getStartDate() != null) {
+            sql.append(" AND start_timestamp >= ?");
+            params.add(searchDTO.getStartDate());
+        }
+        if (searchDTO.getEndDate() != null) {
+            sql.append(" AND end_timestamp <= ? AND start_timestamp <= ?");
+            params.add(searchDTO.getEndDate());
+            params.add(searchDTO.getEndDate());
+        }
+
+        switch (searchDTO.getTimeframe()) {
+            case "upcoming" -> {
+                sql.append(" AND start_timestamp > ?");
+                params.add(now);
+            }
+            case "past" -> {
+                sql.append(" AND end_timestamp < ? AND start_timestamp < ?");
+                params.add(now);
+                params.add(now);
+            }
+            default -> {
+            }
+        }
+        return sql;
+    }
+
+    // Escapes LIKE wildcards so the search text only matches literally
+    private static String containsPattern(String text) {
+        String escaped = text
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
     @Override
     public void deleteById(String id) {
         String sql = "DELETE FROM conferences WHERE id = ?";
         jdbcTemplate.update(sql, id);
     }
 
+    @Override
+    public Optional<Integer> reserveSeat(String conferenceId) {
+        // Single conditional statement: the row lock taken by the UPDATE
+        // serializes concurrent bookers, so the slot count can never go negative
+        String sql = """
+            UPDATE conferences
+            SET available_slots = available_slots - 1,
+                version = version + 1
+            WHERE id = ? AND available_slots > 0
+            RETURNING available_slots
+        """;
+        List<Integer> remaining = jdbcTemplate.queryForList(sql, Integer.class, conferenceId);
+        return remaining.isEmpty() ? Optional.empty() : Optional.of(remaining.get(0));
+    }
+
+    @Override
+    public boolean assignWaitlistQueue(String conferenceId, String queueId) {
+        // Bumps the version so a concurrent save of a stale copy cannot clear the queue id
+        String sql = """
+            UPDATE conferences
+            SET waitlist_queue_id = ?,
+                version = version + 1
+            WHERE id = ? AND waitlist_queue_id IS NULL
+        """;
+        return jdbcTemplate.update(sql, queueId, conferenceId) == 1;
+    }
+
     private String toJson(Set<String> topics) {
         if (topics == null || topics.isEmpty()) {
             return "[]";
@@ -6,14 +6,19 @@ import com.example.conferencebooking.entity.User;
 import com.example.conferencebooking.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class UserPostgresImpl implements UserRepository {
+    // Rows per round trip when streaming
+    private static final int STREAM_FETCH_SIZE = 500;
     
     private final JdbcTemplate jdbcTemplate;
     
@@ -67,6 +72,18 @@ public class UserPostgresImpl implements UserRepository {
         return jdbcTemplate.query(sql, userRowMapper);
     }
 
+    @Override
+    public void streamAll(Consumer<User> consumer) {
+        String sql = "SELECT * FROM users ORDER BY id";
+        jdbcTemplate.query(
+            con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                ps.setFetchSize(STREAM_FETCH_SIZE);
+                return ps;
+            },
+            (RowCallbackHandler) rs -> consumer.accept(userRowMapper.mapRow(rs, rs.getRow())));
+    }
+
     @Override
     public void deleteById(String id) {
         String sql = "DELETE FROM users WHERE id = ?";
@@ -1,6 +1,7 @@
 package com.example.conferencebooking.service;
 
 import com.example.conferencebooking.entity.Booking;
+import java.util.Collection;
 import java.util.List;
 import com.example.conferencebooking.dto.BookingStatusDTO;
 
@@ -12,4 +13,6 @@ public interface BookingService {
     List<Booking> getConferenceBookings(String conferenceId);
     Booking confirmWaitlistBooking(String bookingId);
     BookingStatusDTO getBookingStatus(String bookingId);
+    void requeueExpiredBookings(Collection<String> bookingIds);
+    void closeWaitlist(String conferenceId);
 } 
\ No newline at end of file
@@ -1,15 +1,27 @@
 package com.example.conferencebooking.service;
 
 import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.dto.ConferencePageDTO;
 import com.example.conferencebooking.dto.ConferenceSearchDTO;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ConferenceService {
     Conference createConference(Conference conference);
     Conference getConference(String id);
+    Conference updateConference(String id, Consumer<Conference> change);
     List<Conference> getAllConferences();
+    void exportConferences(Consumer<Conference> consumer);
+    ConferencePageDTO getConferencePage(String cursor, int size);
+    List<Conference> getConferencesByIds(Collection<String> ids);
     void deleteConference(String id);
     List<Conference> searchConferences(ConferenceSearchDTO searchDTO);
+    ConferencePageDTO searchConferencePage(ConferenceSearchDTO searchDTO, String cursor, int size);
     List<Conference> getSuggestedConferences(String userId);
     List<Conference> getUpcomingConferences();
+    Optional<Integer> reserveSeat(String conferenceId);
+    List<String> findOverlappingConferenceIds(LocalDateTime start, LocalDateTime end);
 } 
\ No newline at end of file
@@ -4,12 +4,14 @@ import com.example.conferencebooking.entity.User;
 import com.example.conferencebooking.entity.Booking;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserService {
     User createUser(User user);
     User getUser(String id);
     User getUserByEmail(String email);
     List<User> getAllUsers();
+    void exportUsers(Consumer<User> consumer);
     void deleteUser(String id);
     Optional<User> findByEmail(String email);
     User validateLogin(String email, String password);
@@ -0,0 +1,112 @@
+package com.example.conferencebooking.service.expiry;
+
+import com.example.conferencebooking.entity.Booking;
+import com.example.conferencebooking.entity.BookingStatus;
+import com.example.conferencebooking.repository.BookingRepository;
+import com.example.conferencebooking.service.BookingService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires when a PROCESSING booking's confirmation window closes. Every promotion
+ * schedules one entry in a DelayQueue; a single thread wakes at the earliest deadline
+ * and hands all bookings due by then to the booking service as one batch.
+ * Rebuilt from the PROCESSING bookings in the database on startup. Entries for bookings
+ * that were confirmed or promoted again in the meantime are ignored when they fire.
+ */
+@Slf4j
+@Component
+public class BookingExpiryScheduler {
+    private static final Duration CONFIRMATION_WINDOW = Duration.ofHours(1);
+
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final int batchSize;
+    // A batch that failed to requeue is tried again after this delay
+    private final Duration retryDelay;
+    private final DelayQueue<Expiry> expiries = new DelayQueue<>();
+    private Thread worker;
+
+    public BookingExpiryScheduler(BookingRepository bookingRepository,
+                                  @Lazy BookingService bookingService,
+                                  @Value("${booking.expiry.batch-size:500}") int batchSize,
+                                  @Value("${booking.expiry.retry-delay:10s}") Duration retryDelay) {
+        this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<Booking> processing = bookingRepository.findByStatus(BookingStatus.PROCESSING);
+        processing.forEach(booking -> schedule(booking.getId(), booking.getBookingTime()));
+        log.info("Scheduled confirmation expiry for {} processing bookings", processing.size());
+
+        worker = new Thread(this::run, "booking-expiry");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Schedules the booking to go back to the waitlist once its confirmation window,
+     * counted from when it entered PROCESSING, has passed.
+     */
+    public void schedule(String bookingId, LocalDateTime processingSince) {
+        long expiresAt = processingSince.plus(CONFIRMATION_WINDOW)
+            .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        expiries.add(new Expiry(bookingId, expiresAt));
+    }
+
+    private void run() {
+        List<Expiry> due = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                due.add(expiries.take());
+                expiries.drainTo(due, batchSize - 1);
+                bookingService.requeueExpiredBookings(due.stream().map(Expiry::bookingId).toList());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Failed to requeue {} expired bookings, retrying in {}", due.size(), retryDelay, e);
+                long retryAt = System.currentTimeMillis() + retryDelay.toMillis();
+                due.forEach(expiry -> expiries.add(new Expiry(expiry.bookingId(), retryAt)));
+            } finally {
+                due.clear();
+            }
+        }
+    }
+
+    private record Expiry(String bookingId, long expiresAtMillis) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAtMillis, ((Expiry) other).expiresAtMillis);
+        }
+    }
+}
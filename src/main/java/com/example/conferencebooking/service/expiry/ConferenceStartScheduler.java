@@ -0,0 +1,125 @@
+package com.example.conferencebooking.service.expiry;
+
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.exception.ConferenceNotFoundException;
+import com.example.conferencebooking.repository.BookingRepository;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import com.example.conferencebooking.service.BookingService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closes each conference's waitlist at the moment the conference starts. One timer per
+ * upcoming conference, kept current by ConferenceServiceImpl on save and delete, so the
+ * work done depends on how many conferences start rather than on the catalog size.
+ * On startup, conferences that started while the app was down and still have waitlisted
+ * bookings are closed right away.
+ */
+@Slf4j
+@Component
+public class ConferenceStartScheduler {
+    // A close that failed is tried again after this delay
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final ConferenceRepository conferenceRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final Map<String, StartTask> tasks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "conference-start");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ConferenceStartScheduler(ConferenceRepository conferenceRepository,
+                                    BookingRepository bookingRepository,
+                                    @Lazy BookingService bookingService) {
+        this.conferenceRepository = conferenceRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<Conference> conferences = conferenceRepository.findAll();
+        conferences.forEach(this::schedule);
+
+        List<String> missed = bookingRepository.findStartedConferenceIdsWithWaitlist(LocalDateTime.now());
+        missed.forEach(conferenceId -> executor.execute(() -> close(conferenceId)));
+        log.info("Scheduled waitlist close for {} upcoming conferences, closing {} already started",
+            tasks.size(), missed.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * (Re)schedules the waitlist close for the conference's start time. A conference that
+     * has already started gets no timer.
+     */
+    public synchronized void schedule(Conference conference) {
+        LocalDateTime start = conference.getStartTimestamp();
+        StartTask existing = tasks.get(conference.getId());
+        if (existing != null && existing.start.equals(start)) {
+            return;
+        }
+        unschedule(conference.getId());
+
+        long delayMillis = Duration.between(LocalDateTime.now(), start).toMillis();
+        if (delayMillis > 0) {
+            // Registered before it is scheduled, so a timer that fires at once finds its entry
+            StartTask task = new StartTask(start);
+            tasks.put(conference.getId(), task);
+            task.future = executor.schedule(() -> fire(conference.getId(), task), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void unschedule(String conferenceId) {
+        StartTask task = tasks.remove(conferenceId);
+        if (task != null) {
+            task.future.cancel(false);
+        }
+    }
+
+    private void fire(String conferenceId, StartTask task) {
+        // Only this timer's entry; a reschedule that raced with it has already put its own
+        tasks.remove(conferenceId, task);
+        close(conferenceId);
+    }
+
+    private void close(String conferenceId) {
+        try {
+            bookingService.closeWaitlist(conferenceId);
+        } catch (ConferenceNotFoundException e) {
+            log.debug("Conference {} was deleted before its waitlist was closed", conferenceId);
+        } catch (RuntimeException e) {
+            log.error("Failed to close waitlist of conference {}, retrying in {}", conferenceId, RETRY_DELAY, e);
+            executor.schedule(() -> close(conferenceId), RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static final class StartTask {
+        private final LocalDateTime start;
+        private ScheduledFuture<?> future;
+
+        private StartTask(LocalDateTime start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.conferencebooking.service.idempotency;
+
+// Remembers which operations were already performed so retries and duplicate
+// triggers become no-ops. Keys expire after a configured TTL.
+public interface IdempotencyStore {
+    // Returns true if the key was recorded now, false if it is already present
+    boolean markIfAbsent(String key);
+    void remove(String key);
+}
@@ -0,0 +1,31 @@
+package com.example.conferencebooking.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Per-JVM idempotency keys backed by a Caffeine cache. Entries expire after the
+ * TTL and the oldest are evicted once the size bound is hit, so heap use stays flat.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Cache<String, Boolean> keys;
+
+    public InMemoryIdempotencyStore(Duration ttl, long maxSize) {
+        this.keys = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @Override
+    public boolean markIfAbsent(String key) {
+        return keys.asMap().putIfAbsent(key, Boolean.TRUE) == null;
+    }
+
+    @Override
+    public void remove(String key) {
+        keys.invalidate(key);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.conferencebooking.service.idempotency;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idempotency keys in the idempotency_keys table, shared by every app instance and
+ * kept across restarts. Writes join the caller's transaction, so a rolled back
+ * booking also forgets its key.
+ */
+public class PostgresIdempotencyStore implements IdempotencyStore {
+    // Expired rows are swept every this many inserts instead of on a timer
+    private static final long PURGE_INTERVAL = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final AtomicLong marks = new AtomicLong();
+
+    public PostgresIdempotencyStore(JdbcTemplate jdbcTemplate, Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public boolean markIfAbsent(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        if (marks.incrementAndGet() % PURGE_INTERVAL == 0) {
+            jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < ?", now);
+        }
+
+        // An expired key is taken over as if it were absent
+        String sql = """
+            INSERT INTO idempotency_keys (idempotency_key, expires_at)
+            VALUES (?, ?)
+            ON CONFLICT (idempotency_key) DO UPDATE SET expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at < ?
+        """;
+        return jdbcTemplate.update(sql, key, now.plus(ttl), now) == 1;
+    }
+
+    @Override
+    public void remove(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ?", key);
+    }
+}
@@ -1,22 +1,16 @@
 package com.example.conferencebooking.service.impl;
 
-import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import org.springframework.amqp.core.Message;
-import org.springframework.amqp.rabbit.annotation.RabbitHandler;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,39 +21,41 @@ import com.example.conferencebooking.entity.Conference;
 import com.example.conferencebooking.entity.User;
 import com.example.conferencebooking.exception.BookingNotFoundException;
 import com.example.conferencebooking.exception.ValidationException;
-import com.example.conferencebooking.message.BookingMessage;
 import com.example.conferencebooking.repository.BookingRepository;
 import com.example.conferencebooking.service.BookingService;
 import com.example.conferencebooking.service.ConferenceService;
 import com.example.conferencebooking.service.UserService;
+import com.example.conferencebooking.service.expiry.BookingExpiryScheduler;
+import com.example.conferencebooking.service.lock.ConferenceLockManager;
+import com.example.conferencebooking.service.slot.SlotCounterCache;
+import com.example.conferencebooking.service.suggestion.TopicAffinityIndex;
 import com.example.conferencebooking.service.validator.BookingValidator;
+import com.example.conferencebooking.service.waitlist.WaitlistEngine;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import jakarta.persistence.EntityNotFoundException;
-import com.rabbitmq.client.Channel;
-import org.springframework.messaging.handler.annotation.Payload;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@RabbitListener(queues = "${rabbitmq.queue.name}")
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ConferenceService conferenceService;
     private final UserService userService;
     private final BookingValidator bookingValidator;
-    private final RabbitTemplate rabbitTemplate;
-
-    @Value("${rabbitmq.queue.name}")
-    private String queueName;
-
-    private final Set<String> processedBookings = Collections.synchronizedSet(new HashSet<>());
+    private final ConferenceLockManager conferenceLockManager;
+    private final SlotCounterCache slotCounterCache;
+    private final WaitlistEngine waitlistEngine;
+    private final BookingExpiryScheduler bookingExpiryScheduler;
+    private final TopicAffinityIndex topicAffinityIndex;
 
     @Override
     @Transactional
     public Booking createBooking(String userId, String conferenceId) {
+        return conferenceLockManager.withLock(conferenceId, () -> doCreateBooking(userId, conferenceId));
+    }
+
+    private Booking doCreateBooking(String userId, String conferenceId) {
         try {
             User user = userService.getUser(userId);
             Conference conference = conferenceService.getConference(conferenceId);
@@ -70,42 +66,44 @@ public class BookingServiceImpl implements BookingService {
             }
             
             // Check for existing active booking
-            List<Booking> userBookings = bookingRepository.findByUserId(userId);
-            Optional<Booking> existingBooking = userBookings.stream()
-                .filter(b -> b.getConferenceId().equals(conferenceId))
-                .filter(b -> b.getStatus() != BookingStatus.CANCELLED)
-                .findFirst();
-                
+            Optional<Booking> existingBooking = bookingRepository.findActiveBooking(userId, conferenceId);
             if (existingBooking.isPresent()) {
                 throw new ValidationException("Already have active booking with ID: " + existingBooking.get().getId());
             }
             
             // Validate booking
             bookingValidator.validateBooking(user, conference);
-            
+
+            // Claim a seat in one atomic statement; empty means the conference is full
+            Optional<Integer> remainingSlots = conferenceService.reserveSeat(conferenceId);
+            conference.setAvailableSlots(remainingSlots.orElse(0));
+
             // Create the booking
+            LocalDateTime now = LocalDateTime.now();
             Booking booking = Booking.builder()
                 .id(UUID.randomUUID().toString())
                 .userId(userId)
                 .conferenceId(conferenceId)
-                .bookingTime(LocalDateTime.now())
-                .status(conference.getAvailableSlots() > 0 ? BookingStatus.CONFIRMED : BookingStatus.WAITLISTED)
+                .bookingTime(now)
+                .status(remainingSlots.isPresent() ? BookingStatus.CONFIRMED : BookingStatus.WAITLISTED)
+                .waitlistedAt(remainingSlots.isPresent() ? null : now)
                 .build();
-            
-            // Save to database
-            booking = bookingRepository.save(booking);
-            
-            // If no available slots, add to waitlist
-            if (conference.getAvailableSlots() <= 0) {
+
+            // Save to database; the active-booking unique index rejects a concurrent duplicate
+            try {
+                booking = bookingRepository.save(booking);
+            } catch (DuplicateKeyException e) {
+                throw new ValidationException("You already have an active booking for this conference");
+            }
+            topicAffinityIndex.recordBooking(booking, conference);
+
+            // If no seat was reserved, add to waitlist
+            if (remainingSlots.isEmpty()) {
                 log.info("No available slots for conference {}. Adding to waitlist.", conferenceId);
                 addToWaitlistQueue(booking, conference);
                 return booking;
             }
-            
-            // Update conference slots for confirmed booking
-            conference.setAvailableSlots(conference.getAvailableSlots() - 1);
-            conferenceService.createConference(conference);
-            
+
             // Remove from other waitlists if confirmed
             if (booking.getStatus() == BookingStatus.CONFIRMED) {
                 removeFromOverlappingWaitlists(userId, conference);
@@ -120,201 +118,75 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private void removeFromOverlappingWaitlists(String userId, Conference bookedConference) {
-        List<Conference> allConferences = conferenceService.getAllConferences();
-        
-        allConferences.stream()
-            .filter(c -> !c.getId().equals(bookedConference.getId()))
-            .filter(c -> isOverlapping(c, bookedConference))
-            .forEach(c -> {
-                if (c.getWaitlistQueueId() != null) {
-                    removeUserFromWaitlist(userId, c);
-                }
-            });
-    }
-
-    private boolean isOverlapping(Conference c1, Conference c2) {
-        return !c1.getEndTimestamp().isBefore(c2.getStartTimestamp()) && 
-               !c2.getEndTimestamp().isBefore(c1.getStartTimestamp());
-    }
+        List<String> overlappingIds = conferenceService.findOverlappingConferenceIds(
+            bookedConference.getStartTimestamp(), bookedConference.getEndTimestamp()).stream()
+            .filter(id -> !id.equals(bookedConference.getId()))
+            .toList();
+        if (overlappingIds.isEmpty()) {
+            return;
+        }
 
-    private void removeUserFromWaitlist(String userId, Conference conference) {
-        // Get all messages from queue
-        List<Message> messages = new ArrayList<>();
-        Message message;
-        while ((message = rabbitTemplate.receive(conference.getWaitlistQueueId())) != null) {
-            try {
-                // Extract booking ID from BookingMessage
-                BookingMessage bookingMessage = (BookingMessage) rabbitTemplate.getMessageConverter()
-                    .fromMessage(message);
-                
-                // Get the actual booking from database
-                Booking booking = bookingRepository.findById(bookingMessage.getBookingId())
-                    .orElse(null);
-                    
-                if (booking != null && !booking.getUserId().equals(userId)) {
-                    messages.add(message);
-                } else if (booking != null) {
-                    // Cancel the booking in database
-                    booking.setStatus(BookingStatus.CANCELLED);
-                    bookingRepository.save(booking);
-                }
-            } catch (Exception e) {
-                log.error("Error processing message: {}", e.getMessage());
-                messages.add(message); // Keep message in queue if processing fails
-            }
+        List<String> cancelledIds = waitlistEngine.removeUser(userId, overlappingIds);
+        topicAffinityIndex.recordCancellations(cancelledIds);
+        if (!cancelledIds.isEmpty()) {
+            log.info("Removed user {} from {} overlapping waitlists", userId, cancelledIds.size());
         }
-        
-        // Requeue messages that weren't for this user
-        messages.forEach(m -> {
-            try {
-                BookingMessage bookingMessage = (BookingMessage) rabbitTemplate.getMessageConverter()
-                    .fromMessage(m);
-                rabbitTemplate.convertAndSend(
-                    conference.getWaitlistQueueId(),
-                    bookingMessage,
-                    msg -> {
-                        msg.getMessageProperties().setPriority(1);
-                        return msg;
-                    }
-                );
-            } catch (Exception e) {
-                log.error("Error requeueing message: {}", e.getMessage());
-            }
-        });
     }
 
-    @Scheduled(fixedRate = 60000) // Run every minute
+    @Override
     @Transactional
-    public void autoCancelExpiredWaitlist() {
-        List<Conference> startedConferences = conferenceService.getAllConferences().stream()
-            .filter(c -> LocalDateTime.now().isAfter(c.getStartTimestamp()))
-            .filter(c -> c.getWaitlistQueueId() != null)
-            .toList();
+    public void closeWaitlist(String conferenceId) {
+        conferenceLockManager.withLock(conferenceId, () -> {
+            Conference conference = conferenceService.getConference(conferenceId);
             
-        for (Conference conference : startedConferences) {
-            // Cancel all waitlisted bookings
-            List<Booking> waitlistedBookings = bookingRepository.findByConferenceIdAndStatus(
-                conference.getId(), BookingStatus.WAITLISTED);
-                
-            waitlistedBookings.forEach(booking -> {
-                booking.setStatus(BookingStatus.CANCELLED);
-                bookingRepository.save(booking);
-            });
-                
-            // Clear the queue
-            while (rabbitTemplate.receive(conference.getWaitlistQueueId()) != null) {
-                // Keep receiving until queue is empty
-            }
-                
-            // Remove queue ID from conference
-            conference.setWaitlistQueueId(null);
-            conferenceService.createConference(conference);
-        }
+            // Cancel all waitlisted bookings and discard the waitlist
+            List<String> cancelledIds = waitlistEngine.cancelAll(conference);
+            topicAffinityIndex.recordCancellations(cancelledIds);
+            log.info("Cancelled {} waitlisted bookings of started conference {}", cancelledIds.size(), conferenceId);
+        });
     }
 
     private void addToWaitlistQueue(Booking booking, Conference conference) {
-        // Ensure the conference has a queue
-        if (conference.getWaitlistQueueId() == null) {
-            String queueId = "conference.waitlist." + conference.getId();
-            conference.setWaitlistQueueId(queueId);
-            conferenceService.createConference(conference);
-            
-            // Declare queue with FIFO properties
-            rabbitTemplate.execute(channel -> {
-                Map<String, Object> args = new HashMap<>();
-                args.put("x-max-priority", 1);
-                channel.queueDeclare(queueId, true, false, false, args);
-                return null;
-            });
-        }
-
-        String idempotencyKey = booking.getId() + "_" + booking.getBookingTime();
-        
-        // Check if this booking was already processed
-        if (!processedBookings.add(idempotencyKey)) {
-            log.info("Booking {} already in waitlist queue, skipping", booking.getId());
-            return;
-        }
-
-        try {
-            // Add to queue with idempotency key in message properties
-            BookingMessage message = new BookingMessage(booking.getId());
-            rabbitTemplate.convertAndSend(
-                conference.getWaitlistQueueId(), 
-                message,
-                m -> {
-                    m.getMessageProperties().setMessageId(idempotencyKey);
-                    m.getMessageProperties().setTimestamp(
-                        java.util.Date.from(booking.getBookingTime()
-                            .atZone(java.time.ZoneId.systemDefault())
-                            .toInstant())
-                    );
-                    return m;
-                }
-            );
-            
-            log.info("Added booking {} to waitlist queue {} with idempotency key {}", 
-                booking.getId(), conference.getWaitlistQueueId(), idempotencyKey);
-        } catch (Exception e) {
-            // Remove from processed set if sending fails
-            processedBookings.remove(idempotencyKey);
-            throw e;
-        }
+        waitlistEngine.enqueue(booking, conference);
     }
 
     @Override
     @Transactional
     public void cancelBooking(String id) {
+        String conferenceId = getBooking(id).getConferenceId();
+        conferenceLockManager.withLock(conferenceId, () -> doCancelBooking(id));
+    }
+
+    private void doCancelBooking(String id) {
         try {
             Booking booking = getBooking(id);
-            Conference conference = conferenceService.getConference(booking.getConferenceId());
-            
-            log.info("Cancelling booking {} for conference {}", id, conference.getId());
+
+            log.info("Cancelling booking {} for conference {}", id, booking.getConferenceId());
 
             // Only process waitlist if cancelling a confirmed booking
             if (booking.getStatus() == BookingStatus.CONFIRMED) {
                 // Increment available slots
-                conference.setAvailableSlots(conference.getAvailableSlots() + 1);
-                conferenceService.createConference(conference);
+                Conference conference;
+                if (slotCounterCache.isEnabled()) {
+                    slotCounterCache.release(booking.getConferenceId());
+                    conference = conferenceService.getConference(booking.getConferenceId());
+                } else {
+                    conference = conferenceService.updateConference(booking.getConferenceId(),
+                        c -> c.setAvailableSlots(c.getAvailableSlots() + 1));
+                }
                 
                 // Process next waitlisted booking if exists
-                if (conference.getWaitlistQueueId() != null) {
-                    log.info("Processing next waitlisted booking from queue: {}", conference.getWaitlistQueueId());
-                    rabbitTemplate.execute(channel -> {
-                        com.rabbitmq.client.GetResponse response = channel.basicGet(conference.getWaitlistQueueId(), false);
-                        if (response != null) {
-                            String messageBody = new String(response.getBody());
-                            String waitlistedBookingId = messageBody.replaceAll("[{}\"]", "").split(":")[1].trim();
-                            
-                            try {
-                                Booking waitlistedBooking = bookingRepository.findById(waitlistedBookingId)
-                                    .orElseThrow(() -> new EntityNotFoundException("Waitlisted booking not found"));
-                                
-                                // Move waitlisted booking to processing state
-                                waitlistedBooking.setStatus(BookingStatus.PROCESSING);
-                                waitlistedBooking.setBookingTime(LocalDateTime.now());
-                                bookingRepository.save(waitlistedBooking);
-                                
-                                // Acknowledge the message
-                                channel.basicAck(response.getEnvelope().getDeliveryTag(), false);
-                                
-                                log.info("Successfully moved booking {} from waitlist to processing", waitlistedBookingId);
-                            } catch (Exception e) {
-                                // Requeue the message if processing fails
-                                channel.basicNack(response.getEnvelope().getDeliveryTag(), false, true);
-                                log.error("Failed to process waitlisted booking: {}", e.getMessage());
-                            }
-                        } else {
-                            log.info("No waitlisted bookings found in queue");
-                        }
-                        return null;
-                    });
-                }
+                waitlistEngine.promoteHead(conference)
+                    .ifPresent(promotedId -> bookingExpiryScheduler.schedule(promotedId, LocalDateTime.now()));
             }
 
             // Cancel the current booking
+            boolean wasActive = booking.getStatus() != BookingStatus.CANCELLED;
             booking.setStatus(BookingStatus.CANCELLED);
             bookingRepository.save(booking);
+            if (wasActive) {
+                topicAffinityIndex.recordCancellation(booking.getId());
+            }
             log.info("Successfully cancelled booking {}", id);
             
         } catch (Exception e) {
@@ -324,42 +196,61 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private void processWaitlistQueue(Conference conference) {
-        while (conference.getAvailableSlots() > 0) {
-            Message message = rabbitTemplate.receive(conference.getWaitlistQueueId());
-            if (message == null) {
-                log.info("No more waitlisted bookings");
-                break;
+        try {
+            if (slotCounterCache.isEnabled()) {
+                processWaitlistQueueFromCounter(conference);
+                return;
             }
 
-            try {
-                Booking waitlistedBooking = (Booking) rabbitTemplate.getMessageConverter()
-                    .fromMessage(message);
-                
-                // Move to processing state
-                log.info("Processing waitlisted booking: " + waitlistedBooking.getId());
-                waitlistedBooking.setStatus(BookingStatus.PROCESSING);
-                waitlistedBooking.setBookingTime(LocalDateTime.now());
-                bookingRepository.save(waitlistedBooking);
-                
-                // Remove from queue without re-queueing
-                rabbitTemplate.execute(channel -> {
-                    channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
-                    return null;
-                });
-                
-                // Decrease free_slots
-                conference.setAvailableSlots(conference.getAvailableSlots() - 1);
-                conferenceService.createConference(conference);
-                
-                log.info("Booking {} moved to processing state. Free slots remaining: {}", 
-                    waitlistedBooking.getId(), conference.getAvailableSlots());
-            } catch (Exception e) {
-                log.error("Error processing waitlist booking", e);
-                break;
+            // Move as many waitlist heads to processing state as there are free slots, in one batch
+            List<String> promotedIds = waitlistEngine.promoteHeads(conference, conference.getAvailableSlots());
+            if (promotedIds.isEmpty()) {
+                log.info("No more waitlisted bookings");
+                return;
             }
+            
+            LocalDateTime promotedAt = LocalDateTime.now();
+            promotedIds.forEach(id -> bookingExpiryScheduler.schedule(id, promotedAt));
+            
+            // Decrease free_slots once for the whole batch
+            int promoted = promotedIds.size();
+            conference = conferenceService.updateConference(conference.getId(),
+                c -> c.setAvailableSlots(c.getAvailableSlots() - promoted));
+            
+            log.info("Bookings {} moved to processing state. Free slots remaining: {}", 
+                promotedIds, conference.getAvailableSlots());
+        } catch (Exception e) {
+            log.error("Error processing waitlist booking", e);
         }
     }
 
+    // With write-behind the row lags the counter, so the seats are taken from the counter first
+    // and only as many heads are promoted as were actually acquired
+    private void processWaitlistQueueFromCounter(Conference conference) {
+        String conferenceId = conference.getId();
+        int acquired = slotCounterCache.acquireUpTo(conferenceId, Integer.MAX_VALUE);
+        if (acquired == 0) {
+            log.info("No free slots for waitlisted bookings");
+            return;
+        }
+
+        List<String> promotedIds = List.of();
+        try {
+            promotedIds = waitlistEngine.promoteHeads(conference, acquired);
+        } finally {
+            slotCounterCache.release(conferenceId, acquired - promotedIds.size());
+        }
+        if (promotedIds.isEmpty()) {
+            log.info("No more waitlisted bookings");
+            return;
+        }
+
+        LocalDateTime promotedAt = LocalDateTime.now();
+        promotedIds.forEach(id -> bookingExpiryScheduler.schedule(id, promotedAt));
+        log.info("Bookings {} moved to processing state. Free slots remaining: {}",
+            promotedIds, slotCounterCache.available(conferenceId));
+    }
+
     @Override
     public BookingStatusDTO getBookingStatus(String bookingId) {
         Booking booking = getBooking(bookingId);
@@ -406,10 +297,14 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<Booking> getUserBookings(String userId) {
         List<Booking> bookings = bookingRepository.findByUserId(userId);
-        // Fetch conference details for each booking
+        // Fetch conference details for all bookings in one query
+        Set<String> conferenceIds = bookings.stream()
+            .map(Booking::getConferenceId)
+            .collect(Collectors.toSet());
+        Map<String, Conference> conferences = conferenceService.getConferencesByIds(conferenceIds).stream()
+            .collect(Collectors.toMap(Conference::getId, Function.identity()));
         for (Booking booking : bookings) {
-            Conference conference = conferenceService.getConference(booking.getConferenceId());
-            booking.setConference(conference);
+            booking.setConference(conferences.get(booking.getConferenceId()));
         }
         return bookings;
     }
@@ -422,6 +317,11 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public Booking confirmWaitlistBooking(String bookingId) {
+        String conferenceId = getBooking(bookingId).getConferenceId();
+        return conferenceLockManager.withLock(conferenceId, () -> doConfirmWaitlistBooking(bookingId));
+    }
+
+    private Booking doConfirmWaitlistBooking(String bookingId) {
         Booking booking = getBooking(bookingId);
         Conference conference = conferenceService.getConference(booking.getConferenceId());
         
@@ -437,14 +337,16 @@ public class BookingServiceImpl implements BookingService {
         
         // Check if confirmation time has expired
         if (booking.getBookingTime().plusHours(1).isBefore(LocalDateTime.now())) {
-            // Move back to waitlist - Update DB first
-            booking.setStatus(BookingStatus.WAITLISTED);
-            booking.setBookingTime(LocalDateTime.now());
-            booking = bookingRepository.save(booking); // Ensure we get the updated booking
+            // Move back to waitlist - Update DB first; the booking keeps its original
+            // waitlist time and counts one more retry
+            LocalDateTime now = LocalDateTime.now();
+            List<Booking> requeued = bookingRepository.requeueExpiredBookings(List.of(bookingId), now.minusHours(1), now);
             
             // Then add to queue with idempotency
             try {
-                addToWaitlistQueue(booking, conference);
+                for (Booking expired : requeued) {
+                    addToWaitlistQueue(expired, conference);
+                }
             } catch (Exception e) {
                 log.error("Failed to add to waitlist queue, but status is updated: {}", e.getMessage());
                 // Status is already updated in DB, so we'll still throw the validation exception
@@ -454,20 +356,18 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Booking moved back to waitlist due to expired confirmation time");
         }
         
-        // Check if slots are still available
-        if (conference.getAvailableSlots() <= 0) {
+        // Claim the seat atomically; fails if slots ran out in the meantime
+        Optional<Integer> remainingSlots = conferenceService.reserveSeat(conference.getId());
+        if (remainingSlots.isEmpty()) {
             throw new ValidationException("No available slots");
         }
+        conference.setAvailableSlots(remainingSlots.get());
         
         // Confirm booking
         booking.setStatus(BookingStatus.CONFIRMED);
         booking.setBookingTime(LocalDateTime.now());
         bookingRepository.save(booking);
         
-        // Update conference slots
-        conference.setAvailableSlots(conference.getAvailableSlots() - 1);
-        conferenceService.createConference(conference);
-        
         // Remove from other overlapping waitlists
         removeFromOverlappingWaitlists(booking.getUserId(), conference);
         
@@ -477,45 +377,20 @@ public class BookingServiceImpl implements BookingService {
     // Add method to toggle fully booked status
     @Transactional
     public void toggleFullyBooked(String conferenceId, boolean fullyBooked) {
-        Conference conference = conferenceService.getConference(conferenceId);
-        conference.setFullyBooked(fullyBooked);
-        conferenceService.createConference(conference);
+        conferenceLockManager.withLock(conferenceId, () -> doToggleFullyBooked(conferenceId, fullyBooked));
+    }
+
+    private void doToggleFullyBooked(String conferenceId, boolean fullyBooked) {
+        Conference conference = conferenceService.updateConference(conferenceId, c -> c.setFullyBooked(fullyBooked));
         
         // If setting to false and there are available slots, process waitlist
-        if (!fullyBooked && conference.getAvailableSlots() > 0 
-                && conference.getWaitlistQueueId() != null) {
+        if (!fullyBooked && conference.getAvailableSlots() > 0) {
             // Set free slots to available slots when turning off fully booked
             conference.setAvailableSlots(conference.getAvailableSlots());
             processWaitlistQueue(conference);
         }
     }
 
-    @RabbitHandler
-    public void handleWaitlistMessage(Message message, Channel channel, @Payload BookingMessage bookingMessage) {
-        try {
-            // Get the actual booking from database using the ID from message
-            Booking booking = bookingRepository.findById(bookingMessage.getBookingId())
-                .orElseThrow(() -> new EntityNotFoundException("Booking not found"));
-            
-            // Process the booking
-            if (booking.getStatus() == BookingStatus.WAITLISTED) {
-                booking.setStatus(BookingStatus.PROCESSING);
-                bookingRepository.save(booking);
-            }
-            
-            // Acknowledge the message
-            channel.basicAck(message.getMessageProperties().getDeliveryTag(), false);
-        } catch (Exception e) {
-            try {
-                // If processing fails, reject the message and requeue it
-                channel.basicNack(message.getMessageProperties().getDeliveryTag(), false, true);
-                log.error("Error processing waitlist message: {}", e.getMessage());
-            } catch (IOException ioException) {
-                log.error("Error handling message acknowledgment: {}", ioException.getMessage());
-            }
-        }
-    }
-
     // When adding to waitlist
     // private Booking addToWaitlist(User user, Conference conference) {
     //     try {
@@ -548,26 +423,27 @@ public class BookingServiceImpl implements BookingService {
     //     }
     // }
 
-    @Scheduled(fixedRate = 60000) // Run every minute
+    @Override
     @Transactional
-    public void checkProcessingBookingsExpiration() {
+    public void requeueExpiredBookings(Collection<String> bookingIds) {
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> processingBookings = bookingRepository.findByStatus(BookingStatus.PROCESSING);
         
-        for (Booking booking : processingBookings) {
-            if (booking.getBookingTime().plusHours(1).isBefore(now)) {
-                Conference conference = conferenceService.getConference(booking.getConferenceId());
-                
-                // Move back to waitlist
-                booking.setStatus(BookingStatus.WAITLISTED);
-                booking.setBookingTime(now);
-                bookingRepository.save(booking);
-                
-                // Add to end of queue with idempotency
-                addToWaitlistQueue(booking, conference);
-                
-                log.info("Moved expired processing booking {} back to waitlist", booking.getId());
-            }
+        // Move back to waitlist in one update; bookings confirmed in the meantime are skipped
+        List<Booking> expired = bookingRepository.requeueExpiredBookings(bookingIds, now.minusHours(1), now);
+        if (expired.isEmpty()) {
+            return;
+        }
+        
+        Set<String> conferenceIds = expired.stream()
+            .map(Booking::getConferenceId)
+            .collect(Collectors.toSet());
+        Map<String, Conference> conferences = conferenceService.getConferencesByIds(conferenceIds).stream()
+            .collect(Collectors.toMap(Conference::getId, Function.identity()));
+        
+        // Add to end of queue with idempotency
+        for (Booking booking : expired) {
+            addToWaitlistQueue(booking, conferences.get(booking.getConferenceId()));
         }
+        log.info("Moved {} expired processing bookings back to waitlist", expired.size());
     }
 } 
\ No newline at end of file
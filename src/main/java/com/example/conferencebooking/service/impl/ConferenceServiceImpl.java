@@ -1,38 +1,72 @@
 package com.example.conferencebooking.service.impl;
 
 import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.dto.ConferenceCursor;
+import com.example.conferencebooking.dto.ConferencePageDTO;
 import com.example.conferencebooking.dto.ConferenceSearchDTO;
 import com.example.conferencebooking.exception.ConferenceNotFoundException;
 import com.example.conferencebooking.repository.ConferenceRepository;
 import com.example.conferencebooking.service.ConferenceService;
 import com.example.conferencebooking.service.BookingService;
 import com.example.conferencebooking.entity.Booking;
+import com.example.conferencebooking.service.expiry.ConferenceStartScheduler;
+import com.example.conferencebooking.service.index.ConferenceIntervalIndex;
+import com.example.conferencebooking.service.search.ConferenceSearchBackend;
+import com.example.conferencebooking.service.slot.SlotCounterCache;
+import com.example.conferencebooking.service.suggestion.TopicAffinityIndex;
 import com.example.conferencebooking.service.validator.ConferenceValidator;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 import com.example.conferencebooking.entity.BookingStatus;
+@Slf4j
 @Service
 public class ConferenceServiceImpl implements ConferenceService {
+    // How many times a version-checked conference write is re-read and re-applied
+    // before the conflict is surfaced to the caller
+    private static final int MAX_CONFLICT_RETRIES = 5;
+    // Upper bound on a requested page size
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int SUGGESTION_LIMIT = 10;
+
     private final ConferenceRepository conferenceRepository;
     private final ConferenceValidator conferenceValidator;
     private final BookingService bookingService;
+    private final ConferenceIntervalIndex conferenceIntervalIndex;
+    private final SlotCounterCache slotCounterCache;
+    private final ConferenceStartScheduler conferenceStartScheduler;
+    private final ConferenceSearchBackend conferenceSearchBackend;
+    private final TopicAffinityIndex topicAffinityIndex;
 
     @Autowired
     public ConferenceServiceImpl(
             ConferenceRepository conferenceRepository,
             ConferenceValidator conferenceValidator,
-            @Lazy BookingService bookingService) {
+            @Lazy BookingService bookingService,
+            ConferenceIntervalIndex conferenceIntervalIndex,
+            SlotCounterCache slotCounterCache,
+            ConferenceStartScheduler conferenceStartScheduler,
+            ConferenceSearchBackend conferenceSearchBackend,
+            TopicAffinityIndex topicAffinityIndex) {
         this.conferenceRepository = conferenceRepository;
         this.conferenceValidator = conferenceValidator;
         this.bookingService = bookingService;
+        this.conferenceIntervalIndex = conferenceIntervalIndex;
+        this.slotCounterCache = slotCounterCache;
+        this.conferenceStartScheduler = conferenceStartScheduler;
+        this.conferenceSearchBackend = conferenceSearchBackend;
+        this.topicAffinityIndex = topicAffinityIndex;
     }
 
     @Override
@@ -52,7 +86,12 @@ public class ConferenceServiceImpl implements ConferenceService {
         }
         
         conferenceValidator.validate(conference);
-        return conferenceRepository.save(conference);
+        Conference saved = conferenceRepository.save(conference);
+        conferenceIntervalIndex.put(saved);
+        conferenceStartScheduler.schedule(saved);
+        conferenceSearchBackend.onSaved(saved);
+        topicAffinityIndex.put(saved);
+        return saved;
     }
 
     @Override
@@ -61,34 +100,74 @@ public class ConferenceServiceImpl implements ConferenceService {
                 .orElseThrow(() -> new ConferenceNotFoundException("Conference not found with id: " + id));
     }
 
+    /**
+     * Applies a change to the latest copy of the conference and writes it back with a
+     * version check, re-reading and re-applying the change if another writer got there first.
+     */
+    @Override
+    public Conference updateConference(String id, Consumer<Conference> change) {
+        for (int attempt = 1; ; attempt++) {
+            Conference conference = getConference(id);
+            change.accept(conference);
+            try {
+                return createConference(conference);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_CONFLICT_RETRIES) {
+                    log.warn("Giving up on conference {} after {} conflicting updates", id, attempt);
+                    throw e;
+                }
+                log.debug("Version conflict on conference {}, retrying (attempt {})", id, attempt);
+            }
+        }
+    }
+
     @Override
     public List<Conference> getAllConferences() {
         return conferenceRepository.findAll();
     }
 
+    /**
+     * Streams every conference to the consumer. The read-only transaction keeps the
+     * cursor open, so the driver fetches rows in batches instead of all at once.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportConferences(Consumer<Conference> consumer) {
+        conferenceRepository.streamAll(consumer);
+    }
+
+    @Override
+    public ConferencePageDTO getConferencePage(String cursor, int size) {
+        int pageSize = pageSize(size);
+        // One extra row tells whether another page follows
+        List<Conference> rows = conferenceRepository.findPage(ConferenceCursor.decode(cursor), pageSize + 1);
+        return toPage(rows, pageSize);
+    }
+
+    @Override
+    public List<Conference> getConferencesByIds(Collection<String> ids) {
+        return conferenceRepository.findAllByIds(ids);
+    }
+
     @Override
     public void deleteConference(String id) {
         conferenceRepository.deleteById(id);
+        conferenceIntervalIndex.remove(id);
+        conferenceStartScheduler.unschedule(id);
+        conferenceSearchBackend.onDeleted(id);
+        topicAffinityIndex.remove(id);
     }
 
     @Override
     public List<Conference> searchConferences(ConferenceSearchDTO searchDTO) {
-        List<Conference> allConferences = conferenceRepository.findAll();
+        // Only the conferences matching every filter are loaded
+        List<Conference> matchingConferences = conferenceSearchBackend.search(searchDTO);
         
-        // Get user's bookings to check for already booked conferences
-        List<Booking> userBookings = bookingService.getUserBookings(searchDTO.getUserId());
-        
-        // Create a map of conference IDs to their booking status
-        Map<String, BookingStatus> conferenceBookingStatus = userBookings.stream()
-            .collect(Collectors.toMap(
-                Booking::getConferenceId,
-                Booking::getStatus,
-                (existing, replacement) -> existing
-            ));
+        // Map of conference IDs to the user's booking status, to flag already booked conferences
+        Map<String, BookingStatus> conferenceBookingStatus = bookingStatusByConference(searchDTO.getUserId());
         
         // Filter and process conferences
-        List<Conference> results = allConferences.stream()
-            .filter(conference -> matchesSearchCriteria(conference, searchDTO))
+        List<Conference> results = matchingConferences.stream()
             .peek(conference -> {
                 BookingStatus status = conferenceBookingStatus.get(conference.getId());
                 conference.setHasActiveBooking(status != null && status != BookingStatus.CANCELLED);
@@ -108,29 +187,59 @@ public class ConferenceServiceImpl implements ConferenceService {
         return results;
     }
 
+    @Override
+    public ConferencePageDTO searchConferencePage(ConferenceSearchDTO searchDTO, String cursor, int size) {
+        int pageSize = pageSize(size);
+        List<Conference> rows = conferenceSearchBackend.searchPage(
+            searchDTO, ConferenceCursor.decode(cursor), pageSize + 1);
+        ConferencePageDTO page = toPage(rows, pageSize);
+
+        // Booking status only for the conferences on this page; the keyset order is kept
+        Map<String, BookingStatus> conferenceBookingStatus = bookingStatusByConference(searchDTO.getUserId());
+        page.getConferences().forEach(conference -> {
+            BookingStatus status = conferenceBookingStatus.get(conference.getId());
+            conference.setHasActiveBooking(status != null && status != BookingStatus.CANCELLED);
+            if (status != null) {
+                conference.setBookingStatus(status);
+            }
+        });
+        return page;
+    }
+
+    private Map<String, BookingStatus> bookingStatusByConference(String userId) {
+        if (userId == null) {
+            return Map.of();
+        }
+        return bookingService.getUserBookings(userId).stream()
+            .collect(Collectors.toMap(
+                Booking::getConferenceId,
+                Booking::getStatus,
+                (existing, replacement) -> existing
+            ));
+    }
+
+    private static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    private static ConferencePageDTO toPage(List<Conference> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new ConferencePageDTO(rows, null);
+        }
+        List<Conference> conferences = new ArrayList<>(rows.subList(0, pageSize));
+        String nextCursor = ConferenceCursor.of(conferences.get(pageSize - 1)).encode();
+        return new ConferencePageDTO(conferences, nextCursor);
+    }
+
     @Override
     public List<Conference> getSuggestedConferences(String userId) {
-        // Get user's booking history
-        List<Booking> userBookings = bookingService.getUserBookings(userId);
-        
-        // Extract topics from user's previous bookings
-        Set<String> userInterests = userBookings.stream()
-            .map(booking -> conferenceRepository.findById(booking.getConferenceId()).orElse(null))
+        // Ranked from the user's topic profile without touching their booking history
+        List<String> suggestedIds = topicAffinityIndex.suggest(userId, SUGGESTION_LIMIT, LocalDateTime.now());
+        Map<String, Conference> conferences = conferenceRepository.findAllByIds(suggestedIds).stream()
+            .collect(Collectors.toMap(Conference::getId, conference -> conference));
+        return suggestedIds.stream()
+            .map(conferences::get)
             .filter(Objects::nonNull)
-            .map(Conference::getName)
-            .collect(Collectors.toSet());
-        
-        // Get all upcoming conferences
-        List<Conference> upcomingConferences = conferenceRepository.findAll().stream()
-            .filter(conference -> conference.getStartTimestamp().isAfter(LocalDateTime.now()))
-            .collect(Collectors.toList());
-        
-        // Score and rank conferences based on user interests
-        return upcomingConferences.stream()
-            .map(conference -> new ConferenceScore(conference, calculateScore(conference, userInterests)))
-            .sorted(Comparator.comparing(ConferenceScore::getScore).reversed())
-            .limit(10)
-            .map(ConferenceScore::getConference)
             .collect(Collectors.toList());
     }
 
@@ -142,42 +251,17 @@ public class ConferenceServiceImpl implements ConferenceService {
                 .collect(Collectors.toList());
     }
 
-    private boolean matchesSearchCriteria(Conference conference, ConferenceSearchDTO searchDTO) {
-        // Match name
-        if (searchDTO.getName() != null && !searchDTO.getName().isEmpty() &&
-            !conference.getName().toLowerCase().contains(searchDTO.getName().toLowerCase())) {
-            return false;
-        }
-
-        // Match location
-        if (searchDTO.getLocation() != null && !searchDTO.getLocation().isEmpty() &&
-            !conference.getLocation().toLowerCase().contains(searchDTO.getLocation().toLowerCase())) {
-            return false;
-        }
-
-        // Match topics
-        if (searchDTO.getTopics() != null && !searchDTO.getTopics().isEmpty() &&
-            !conference.getTopics().stream().anyMatch(topic -> 
-                searchDTO.getTopics().stream().anyMatch(searchTopic -> 
-                    topic.toLowerCase().contains(searchTopic.toLowerCase())))) {
-            return false;
-        }
+    @Override
+    public List<String> findOverlappingConferenceIds(LocalDateTime start, LocalDateTime end) {
+        return conferenceIntervalIndex.findOverlapping(start, end);
+    }
 
-        // Match date range
-        if (searchDTO.getStartDate() != null && conference.getStartTimestamp().isBefore(searchDTO.getStartDate())) {
-            return false;
-        }
-        if (searchDTO.getEndDate() != null && conference.getEndTimestamp().isAfter(searchDTO.getEndDate())) {
-            return false;
+    @Override
+    public Optional<Integer> reserveSeat(String conferenceId) {
+        if (slotCounterCache.isEnabled()) {
+            return slotCounterCache.tryAcquire(conferenceId);
         }
-
-        // Match timeframe
-        LocalDateTime now = LocalDateTime.now();
-        return switch (searchDTO.getTimeframe()) {
-            case "upcoming" -> conference.getStartTimestamp().isAfter(now);
-            case "past" -> conference.getEndTimestamp().isBefore(now);
-            default -> true;
-        };
+        return conferenceRepository.reserveSeat(conferenceId);
     }
 
     private Comparator<Conference> getConferenceComparator(String timeframe) {
@@ -187,57 +271,4 @@ public class ConferenceServiceImpl implements ConferenceService {
             default -> Comparator.comparing(Conference::getStartTimestamp);
         };
     }
-
-    private double calculateScore(Conference conference, Set<String> userInterests) {
-        if (userInterests.isEmpty()) {
-            // If no user interests, score based on time and availability
-            return scoreByTimeAndAvailability(conference);
-        }
-
-        double topicScore = calculateTopicScore(conference, userInterests);
-        double timeScore = scoreByTimeAndAvailability(conference);
-        
-        // Weighted combination of scores
-        return (0.7 * topicScore) + (0.3 * timeScore);
-    }
-
-    private double calculateTopicScore(Conference conference, Set<String> userInterests) {
-        long matchingTopics = conference.getTopics().stream()
-            .filter(topic -> userInterests.stream()
-                .anyMatch(interest -> topic.toLowerCase().contains(interest.toLowerCase())))
-            .count();
-        
-        return (double) matchingTopics / conference.getTopics().size();
-    }
-
-    private double scoreByTimeAndAvailability(Conference conference) {
-        LocalDateTime now = LocalDateTime.now();
-        long daysUntilStart = java.time.Duration.between(now, conference.getStartTimestamp()).toDays();
-        
-        // Score conferences starting soon higher, but not too soon
-        double timeScore = 1.0 / (1.0 + Math.abs(daysUntilStart - 14)); // Optimal time is 2 weeks away
-        
-        // Factor in available slots
-        double availabilityScore = (double) conference.getAvailableSlots() / conference.getTotalSlots();
-        
-        return (timeScore + availabilityScore) / 2;
-    }
-
-    private static class ConferenceScore {
-        private final Conference conference;
-        private final double score;
-
-        public ConferenceScore(Conference conference, double score) {
-            this.conference = conference;
-            this.score = score;
-        }
-
-        public Conference getConference() {
-            return conference;
-        }
-
-        public double getScore() {
-            return score;
-        }
-    }
-} 
\ No newline at end of file
+}
@@ -8,10 +8,12 @@ import com.example.conferencebooking.service.UserService;
 import com.example.conferencebooking.service.validator.UserValidator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -51,6 +53,13 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    // The read-only transaction lets the driver fetch rows in batches
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<User> consumer) {
+        userRepository.streamAll(consumer);
+    }
+
     @Override
     public void deleteUser(String id) {
         userRepository.deleteById(id);
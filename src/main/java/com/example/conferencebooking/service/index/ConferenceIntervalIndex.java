@@ -0,0 +1,217 @@
+package com.example.conferencebooking.service.index;
+
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory interval tree of conference time ranges: a treap ordered by start time in which
+ * every node also knows the latest end in its subtree. A lookup skips every subtree that ends
+ * before the query start and stops at the first conference starting after the query end, so
+ * it costs O(log n + k) for k overlapping conferences, however long the longest one is.
+ * Built from the database on startup and kept current by ConferenceServiceImpl.
+ */
+@Slf4j
+@Component
+public class ConferenceIntervalIndex {
+    private final ConferenceRepository conferenceRepository;
+
+    // Lookups share the read lock; put, remove and rebuild take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IntervalKey> keysById = new HashMap<>();
+    private Node root;
+
+    public ConferenceIntervalIndex(ConferenceRepository conferenceRepository) {
+        this.conferenceRepository = conferenceRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Conference> conferences = conferenceRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            root = null;
+            keysById.clear();
+            conferences.forEach(this::insert);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed time ranges of {} conferences", conferences.size());
+    }
+
+    public void put(Conference conference) {
+        lock.writeLock().lock();
+        try {
+            insert(conference);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String conferenceId) {
+        lock.writeLock().lock();
+        try {
+            IntervalKey key = keysById.remove(conferenceId);
+            if (key != null) {
+                root = delete(root, key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of conferences whose [start, end] range overlaps the given one (bounds inclusive),
+     * ordered by start time.
+     */
+    public List<String> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        List<String> overlapping = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            collectOverlapping(root, start, end, overlapping);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return overlapping;
+    }
+
+    // Caller holds the write lock
+    private void insert(Conference conference) {
+        IntervalKey key = new IntervalKey(conference.getStartTimestamp(), conference.getId());
+        IntervalKey previous = keysById.put(conference.getId(), key);
+        if (previous != null) {
+            root = delete(root, previous);
+        }
+        root = insert(root, new Node(key, conference.getEndTimestamp()));
+    }
+
+    private static void collectOverlapping(Node node, LocalDateTime start, LocalDateTime end, List<String> out) {
+        // Nothing in this subtree ends on or after the query start
+        if (node == null || node.maxEnd.isBefore(start)) {
+            return;
+        }
+        collectOverlapping(node.left, start, end, out);
+        // This node and its whole right subtree start after the query end
+        if (node.key.start().isAfter(end)) {
+            return;
+        }
+        if (!node.end.isBefore(start)) {
+            out.add(node.key.id());
+        }
+        collectOverlapping(node.right, start, end, out);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.key.compareTo(node.key) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, IntervalKey key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = key.compareTo(node.key);
+        if (cmp < 0) {
+            node.left = delete(node.left, key);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, key);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Rotate the node down below its higher-priority child, then keep deleting it there
+            if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = delete(node.right, key);
+            } else {
+                node = rotateLeft(node);
+                node.left = delete(node.left, key);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static final class Node {
+        private final IntervalKey key;
+        private final LocalDateTime end;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(IntervalKey key, LocalDateTime end) {
+            this.key = key;
+            this.end = end;
+            this.maxEnd = end;
+        }
+
+        private void update() {
+            LocalDateTime max = end;
+            if (left != null && left.maxEnd.isAfter(max)) {
+                max = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(max)) {
+                max = right.maxEnd;
+            }
+            maxEnd = max;
+        }
+    }
+
+    private record IntervalKey(LocalDateTime start, String id) implements Comparable<IntervalKey> {
+        private static final Comparator<IntervalKey> ORDER =
+            Comparator.comparing(IntervalKey::start).thenComparing(IntervalKey::id);
+
+        @Override
+        public int compareTo(IntervalKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.example.conferencebooking.service.index;
+
+import com.example.conferencebooking.dto.ConferenceCursor;
+import com.example.conferencebooking.dto.ConferenceSearchDTO;
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import com.example.conferencebooking.service.search.ConferenceSearchBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index for conference search. Name, location and each topic are
+ * indexed by every substring of up to three characters, so a substring filter of up to
+ * three characters is a single posting lookup and a longer one intersects the postings
+ * of its trigrams. Only the surviving candidates are checked against the full criteria.
+ * Searches without a text filter walk the conferences in start order, narrowed to the
+ * start range implied by the date filters and the timeframe.
+ * Built from the database on startup and kept current by ConferenceServiceImpl.
+ */
+@Slf4j
+public class ConferenceSearchIndex implements ConferenceSearchBackend {
+    private static final int GRAM_LENGTH = 3;
+
+    private final ConferenceRepository conferenceRepository;
+
+    private final Map<String, Document> documents = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<StartKey, Document> byStart = new ConcurrentSkipListMap<>();
+    private final GramPostings names = new GramPostings();
+    private final GramPostings locations = new GramPostings();
+    private final GramPostings topics = new GramPostings();
+
+    public ConferenceSearchIndex(ConferenceRepository conferenceRepository) {
+        this.conferenceRepository = conferenceRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<Conference> conferences = conferenceRepository.findAll();
+        documents.clear();
+        byStart.clear();
+        names.clear();
+        locations.clear();
+        topics.clear();
+        conferences.forEach(this::put);
+        log.info("Indexed search terms of {} conferences", conferences.size());
+    }
+
+    public synchronized void put(Conference conference) {
+        Document document = Document.of(conference);
+        Document previous = documents.get(document.id());
+        if (document.equals(previous)) {
+            // Slot and version updates leave the searchable fields as they were
+            return;
+        }
+        if (previous != null) {
+            unindex(previous);
+        }
+        names.add(document.id(), document.name());
+        locations.add(document.id(), document.location());
+        document.topics().forEach(topic -> topics.add(document.id(), topic));
+        documents.put(document.id(), document);
+        byStart.put(StartKey.of(document), document);
+    }
+
+    public synchronized void remove(String conferenceId) {
+        Document previous = documents.remove(conferenceId);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    @Override
+    public List<Conference> search(ConferenceSearchDTO searchDTO) {
+        // Only the matching conferences are loaded
+        return conferenceRepository.findAllByIds(findIds(searchDTO));
+    }
+
+    @Override
+    public List<Conference> searchPage(ConferenceSearchDTO searchDTO, ConferenceCursor after, int limit) {
+        // Walk the documents in keyset order from the cursor, checking each against the postings
+        // and the filters, and stop once the page is full; only the page itself is loaded
+        LocalDateTime now = LocalDateTime.now();
+        boolean newestFirst = "past".equals(searchDTO.getTimeframe());
+        List<Set<String>> postings = postings(searchDTO);
+
+        NavigableMap<StartKey, Document> range = startRange(searchDTO, now, after);
+        Collection<Document> walked = newestFirst ? range.descendingMap().values() : range.values();
+
+        List<String> pageIds = new ArrayList<>(limit);
+        for (Document document : walked) {
+            if (pageIds.size() >= limit) {
+                break;
+            }
+            if (postings.stream().allMatch(posting -> posting.contains(document.id()))
+                    && document.matches(searchDTO, now)) {
+                pageIds.add(document.id());
+            }
+        }
+
+        Map<String, Conference> loaded = conferenceRepository.findAllByIds(pageIds).stream()
+            .collect(Collectors.toMap(Conference::getId, Function.identity()));
+        return pageIds.stream()
+            .map(loaded::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    @Override
+    public void onSaved(Conference conference) {
+        put(conference);
+    }
+
+    @Override
+    public void onDeleted(String conferenceId) {
+        remove(conferenceId);
+    }
+
+    /**
+     * Ids of conferences matching every filter of the search, in no particular order.
+     */
+    public List<String> findIds(ConferenceSearchDTO searchDTO) {
+        List<Set<String>> postings = postings(searchDTO);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> matches = new ArrayList<>();
+        if (postings.isEmpty()) {
+            // No text filter: only the conferences whose start can satisfy the dates and timeframe
+            for (Document document : startRange(searchDTO, now, null).values()) {
+                if (document.matches(searchDTO, now)) {
+                    matches.add(document.id());
+                }
+            }
+            return matches;
+        }
+
+        // Walk the smallest posting list and probe the others
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<String> walked = postings.get(0);
+        List<Set<String>> probed = postings.subList(1, postings.size());
+        for (String id : walked) {
+            if (probed.stream().allMatch(posting -> posting.contains(id))) {
+                Document document = documents.get(id);
+                if (document != null && document.matches(searchDTO, now)) {
+                    matches.add(id);
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Candidate sets of the text filters; a match is in every one of them
+    private List<Set<String>> postings(ConferenceSearchDTO searchDTO) {
+        List<Set<String>> postings = new ArrayList<>();
+        if (hasText(searchDTO.getName())) {
+            postings.add(names.candidates(searchDTO.getName().toLowerCase()));
+        }
+        if (hasText(searchDTO.getLocation())) {
+            postings.add(locations.candidates(searchDTO.getLocation().toLowerCase()));
+        }
+        if (searchDTO.getTopics() != null && !searchDTO.getTopics().isEmpty()) {
+            Set<String> anyTopic = topicCandidates(searchDTO.getTopics());
+            if (anyTopic != null) {
+                postings.add(anyTopic);
+            }
+        }
+        return postings;
+    }
+
+    // Documents whose start lies in the range any match must start in: not before the start date
+    // or now for upcoming, not after the end date or now for past (a conference ends after it
+    // starts). A page cursor tightens the bound the walk starts from.
+    private NavigableMap<StartKey, Document> startRange(ConferenceSearchDTO searchDTO, LocalDateTime now,
+                                                        ConferenceCursor after) {
+        boolean past = "past".equals(searchDTO.getTimeframe());
+        LocalDateTime from = searchDTO.getStartDate();
+        if ("upcoming".equals(searchDTO.getTimeframe()) && (from == null || from.isBefore(now))) {
+            from = now;
+        }
+        LocalDateTime to = searchDTO.getEndDate();
+        if (past && (to == null || to.isAfter(now))) {
+            to = now;
+        }
+
+        StartKey lower = from == null ? null : StartKey.first(from);
+        boolean lowerInclusive = true;
+        StartKey upper = to == null ? null : StartKey.first(to.plusNanos(1));
+        boolean upperInclusive = false;
+        if (after != null) {
+            // Past pages are walked newest first, so the cursor bounds them from above
+            StartKey cursor = new StartKey(after.startTimestamp(), after.id());
+            if (past && (upper == null || cursor.compareTo(upper) < 0)) {
+                upper = cursor;
+            } else if (!past && (lower == null || cursor.compareTo(lower) >= 0)) {
+                lower = cursor;
+                lowerInclusive = false;
+            }
+        }
+
+        if (lower != null && upper != null) {
+            return lower.compareTo(upper) > 0
+                ? Collections.emptyNavigableMap()
+                : byStart.subMap(lower, lowerInclusive, upper, upperInclusive);
+        }
+        if (lower != null) {
+            return byStart.tailMap(lower, lowerInclusive);
+        }
+        if (upper != null) {
+            return byStart.headMap(upper, upperInclusive);
+        }
+        return byStart;
+    }
+
+    // Union of the candidates of each search topic; null when one of them cannot narrow
+    // the search (an empty topic matches every conference that has topics)
+    private Set<String> topicCandidates(List<String> searchTopics) {
+        Set<String> union = new HashSet<>();
+        for (String searchTopic : searchTopics) {
+            if (searchTopic.isEmpty()) {
+                return null;
+            }
+            union.addAll(topics.candidates(searchTopic.toLowerCase()));
+        }
+        return union;
+    }
+
+    private void unindex(Document document) {
+        byStart.remove(StartKey.of(document));
+        names.remove(document.id(), document.name());
+        locations.remove(document.id(), document.location());
+        document.topics().forEach(topic -> topics.remove(document.id(), topic));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int start = 0; start < text.length(); start++) {
+            int maxEnd = Math.min(text.length(), start + GRAM_LENGTH);
+            for (int end = start + 1; end <= maxEnd; end++) {
+                grams.add(text.substring(start, end));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Posting lists from gram to conference ids for one field.
+     */
+    private static class GramPostings {
+        private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+
+        void add(String id, String text) {
+            for (String gram : grams(text)) {
+                postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        void remove(String id, String text) {
+            for (String gram : grams(text)) {
+                postings.computeIfPresent(gram, (g, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        void clear() {
+            postings.clear();
+        }
+
+        // Superset of the ids whose text contains the query; exact for short queries
+        Set<String> candidates(String query) {
+            if (query.length() <= GRAM_LENGTH) {
+                return postings.getOrDefault(query, Set.of());
+            }
+
+            List<Set<String>> lists = new ArrayList<>();
+            for (int start = 0; start + GRAM_LENGTH <= query.length(); start++) {
+                Set<String> ids = postings.get(query.substring(start, start + GRAM_LENGTH));
+                if (ids == null) {
+                    return Set.of();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+
+            Set<String> intersection = new HashSet<>(lists.get(0));
+            for (int i = 1; i < lists.size() && !intersection.isEmpty(); i++) {
+                intersection.retainAll(lists.get(i));
+            }
+            return intersection;
+        }
+    }
+
+    /**
+     * Position of a conference in start order; the empty id sorts before every conference
+     * starting at the same time.
+     */
+    private record StartKey(LocalDateTime start, String id) implements Comparable<StartKey> {
+        private static final Comparator<StartKey> ORDER =
+            Comparator.comparing(StartKey::start).thenComparing(StartKey::id);
+
+        static StartKey of(Document document) {
+            return new StartKey(document.start(), document.id());
+        }
+
+        static StartKey first(LocalDateTime start) {
+            return new StartKey(start, "");
+        }
+
+        @Override
+        public int compareTo(StartKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * The searchable fields of a conference, lowercased once at indexing time.
+     */
+    private record Document(String id, String name, String location, List<String> topics,
+                            LocalDateTime start, LocalDateTime end) {
+
+        static Document of(Conference conference) {
+            List<String> topics = conference.getTopics() == null
+                ? List.of()
+                : conference.getTopics().stream().map(String::toLowerCase).toList();
+            return new Document(conference.getId(),
+                conference.getName().toLowerCase(),
+                conference.getLocation().toLowerCase(),
+                topics,
+                conference.getStartTimestamp(),
+                conference.getEndTimestamp());
+        }
+
+        boolean matches(ConferenceSearchDTO searchDTO, LocalDateTime now) {
+            if (hasText(searchDTO.getName()) && !name.contains(searchDTO.getName().toLowerCase())) {
+                return false;
+            }
+            if (hasText(searchDTO.getLocation()) && !location.contains(searchDTO.getLocation().toLowerCase())) {
+                return false;
+            }
+            if (searchDTO.getTopics() != null && !searchDTO.getTopics().isEmpty()
+                    && topics.stream().noneMatch(topic -> searchDTO.getTopics().stream()
+                        .anyMatch(searchTopic -> topic.contains(searchTopic.toLowerCase())))) {
+                return false;
+            }
+            if (searchDTO.getStartDate() != null && start.isBefore(searchDTO.getStartDate())) {
+                return false;
+            }
+            if (searchDTO.getEndDate() != null && end.isAfter(searchDTO.getEndDate())) {
+                return false;
+            }
+            return switch (searchDTO.getTimeframe()) {
+                case "upcoming" -> start.isAfter(now);
+                case "past" -> end.isBefore(now);
+                default -> true;
+            };
+        }
+    }
+}
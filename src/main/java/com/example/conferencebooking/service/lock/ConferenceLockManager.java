@@ -0,0 +1,88 @@
+package com.example.conferencebooking.service.lock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes booking mutations per conference inside this JVM.
+ * Conference ids are hashed onto a fixed set of lock stripes, so work on
+ * different conferences runs in parallel unless two ids share a stripe.
+ */
+@Slf4j
+@Component
+public class ConferenceLockManager {
+    private final ReentrantLock[] stripes;
+    private final Timer[] waitTimers;
+
+    public ConferenceLockManager(MeterRegistry meterRegistry,
+                                 @Value("${booking.lock.stripes:64}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("booking.lock.stripes must be positive");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        this.waitTimers = new Timer[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+            waitTimers[i] = Timer.builder("booking.conference.lock.wait")
+                .description("Time spent waiting for a conference lock stripe")
+                .tag("stripe", String.valueOf(i))
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Runs the action while holding the conference's stripe. When called inside a
+     * transaction the stripe stays held until the transaction completes, so the next
+     * writer always reads committed state.
+     */
+    public <T> T withLock(String conferenceId, Supplier<T> action) {
+        int stripe = stripeFor(conferenceId);
+        ReentrantLock lock = stripes[stripe];
+
+        long waitStart = System.nanoTime();
+        lock.lock();
+        waitTimers[stripe].record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                return action.get();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        try {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+        return action.get();
+    }
+
+    public void withLock(String conferenceId, Runnable action) {
+        withLock(conferenceId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private int stripeFor(String conferenceId) {
+        int hash = conferenceId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+}
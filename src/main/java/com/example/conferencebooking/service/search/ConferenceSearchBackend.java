@@ -0,0 +1,26 @@
+package com.example.conferencebooking.service.search;
+
+import com.example.conferencebooking.dto.ConferenceCursor;
+import com.example.conferencebooking.dto.ConferenceSearchDTO;
+import com.example.conferencebooking.entity.Conference;
+
+import java.util.List;
+
+// Finds the conferences behind ConferenceService.searchConferences. Selected with
+// conference.search.backend: index (in-memory ConferenceSearchIndex) or database (SQL).
+public interface ConferenceSearchBackend {
+    // Conferences matching every filter of the search
+    List<Conference> search(ConferenceSearchDTO searchDTO);
+
+    // Up to limit matching conferences after the cursor (null for the first page), in
+    // (start_timestamp, id) order; newest first for the "past" timeframe
+    List<Conference> searchPage(ConferenceSearchDTO searchDTO, ConferenceCursor after, int limit);
+
+    // Called after a conference is saved, for backends that keep their own copy
+    default void onSaved(Conference conference) {
+    }
+
+    // Called after a conference is deleted, for backends that keep their own copy
+    default void onDeleted(String conferenceId) {
+    }
+}
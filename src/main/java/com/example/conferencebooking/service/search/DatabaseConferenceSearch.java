@@ -0,0 +1,32 @@
+package com.example.conferencebooking.service.search;
+
+import com.example.conferencebooking.dto.ConferenceCursor;
+import com.example.conferencebooking.dto.ConferenceSearchDTO;
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.repository.ConferenceRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Pushes every search filter into one SQL query (see ConferenceRepository.search), so
+ * the database returns only the matching rows, already sorted for the timeframe.
+ * Nothing is held in memory and the results are always current.
+ */
+public class DatabaseConferenceSearch implements ConferenceSearchBackend {
+    private final ConferenceRepository conferenceRepository;
+
+    public DatabaseConferenceSearch(ConferenceRepository conferenceRepository) {
+        this.conferenceRepository = conferenceRepository;
+    }
+
+    @Override
+    public List<Conference> search(ConferenceSearchDTO searchDTO) {
+        return conferenceRepository.search(searchDTO, LocalDateTime.now());
+    }
+
+    @Override
+    public List<Conference> searchPage(ConferenceSearchDTO searchDTO, ConferenceCursor after, int limit) {
+        return conferenceRepository.searchPage(searchDTO, LocalDateTime.now(), after, limit);
+    }
+}
@@ -0,0 +1,451 @@
+package com.example.conferencebooking.service.slot;
+
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Opt-in in-memory slot counters for hot conferences (booking.slots.write-behind.enabled).
+ * <p>
+ * When enabled, the counter is authoritative for admission: a seat is taken with a CAS on an
+ * AtomicInteger instead of an UPDATE on the conference row. Every change is first appended to
+ * a local journal and fsynced (group commit), then coalesced per conference and written to
+ * conferences.available_slots in one batch every flush interval. The batch and the journal
+ * checkpoint commit together, so after a crash the unapplied tail of the journal is replayed
+ * exactly once on startup.
+ * <p>
+ * The counter is only authoritative within one JVM. Run it on a single instance, or route each
+ * conference to a fixed instance.
+ */
+@Slf4j
+@Component
+public class SlotCounterCache {
+    private static final String SEGMENT_PREFIX = "slot-journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final ConferenceRepository conferenceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path journalDir;
+    private final Duration flushInterval;
+    private final String nodeId;
+
+    private final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> pendingDeltas = new ConcurrentHashMap<>();
+    // Appends hold the read lock; a flush takes the write lock to cut a consistent snapshot
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final Object journalLock = new Object();
+    private final Object syncLock = new Object();
+
+    private ScheduledExecutorService flusher;
+    private FileChannel journal;
+    private long lastSeq;
+    private volatile long writtenSeq;
+    private volatile long durableSeq;
+
+    public SlotCounterCache(ConferenceRepository conferenceRepository,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${booking.slots.write-behind.enabled:false}") boolean enabled,
+                            @Value("${booking.slots.write-behind.journal-dir:./data/slot-journal}") String journalDir,
+                            @Value("${booking.slots.write-behind.flush-interval:200ms}") Duration flushInterval,
+                            @Value("${booking.slots.write-behind.node-id:${spring.application.name}}") String nodeId) {
+        this.conferenceRepository = conferenceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.journalDir = Paths.get(journalDir);
+        this.flushInterval = flushInterval;
+        this.nodeId = nodeId;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(journalDir);
+        recover();
+        journal = openSegment(lastSeq + 1);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "slot-counter-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Write-behind slot counters enabled, journal in {}, flushing every {}", journalDir, flushInterval);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        journal.close();
+    }
+
+    /**
+     * Takes one seat if any is left and returns the remaining count. The change is durable in
+     * the journal before this returns and is undone if the surrounding transaction rolls back.
+     */
+    public Optional<Integer> tryAcquire(String conferenceId) {
+        return tryAcquire(conferenceId, 1);
+    }
+
+    /**
+     * Takes the given number of seats as one journal record, or none if fewer are left.
+     */
+    public Optional<Integer> tryAcquire(String conferenceId, int seats) {
+        AtomicInteger counter = counterFor(conferenceId);
+        if (counter == null) {
+            return Optional.empty();
+        }
+
+        int remaining;
+        long seq;
+        rotationLock.readLock().lock();
+        try {
+            while (true) {
+                int current = counter.get();
+                if (current < seats) {
+                    return Optional.empty();
+                }
+                if (counter.compareAndSet(current, current - seats)) {
+                    remaining = current - seats;
+                    break;
+                }
+            }
+            try {
+                seq = record(conferenceId, -seats);
+            } catch (RuntimeException e) {
+                counter.addAndGet(seats);
+                throw e;
+            }
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        awaitDurable(seq);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        adjust(conferenceId, seats);
+                    }
+                }
+            });
+        }
+        return Optional.of(remaining);
+    }
+
+    /**
+     * Takes every seat that is left, up to the given maximum, and returns how many were taken.
+     * Used to reserve seats before work whose size is only known afterwards; hand back the
+     * unused part with {@link #release(String, int)}.
+     */
+    public int acquireUpTo(String conferenceId, int maxSeats) {
+        while (maxSeats > 0) {
+            AtomicInteger counter = counterFor(conferenceId);
+            if (counter == null) {
+                return 0;
+            }
+            int seats = Math.min(counter.get(), maxSeats);
+            if (seats <= 0) {
+                return 0;
+            }
+            if (tryAcquire(conferenceId, seats).isPresent()) {
+                return seats;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gives a seat back. Inside a transaction the seat only becomes available once the
+     * transaction has committed, so a rolled back cancellation never frees a seat.
+     */
+    public void release(String conferenceId) {
+        release(conferenceId, 1);
+    }
+
+    /**
+     * Gives several seats back as one journal record, with the same commit semantics as
+     * {@link #release(String)}.
+     */
+    public void release(String conferenceId, int seats) {
+        if (seats <= 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust(conferenceId, seats);
+                }
+            });
+        } else {
+            adjust(conferenceId, seats);
+        }
+    }
+
+    /**
+     * Current number of free seats as seen by the counter, loading it on first use.
+     */
+    public int available(String conferenceId) {
+        AtomicInteger counter = counterFor(conferenceId);
+        return counter == null ? 0 : counter.get();
+    }
+
+    private void adjust(String conferenceId, int delta) {
+        AtomicInteger counter = counterFor(conferenceId);
+        if (counter == null) {
+            return;
+        }
+        long seq;
+        rotationLock.readLock().lock();
+        try {
+            seq = record(conferenceId, delta);
+            counter.addAndGet(delta);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        awaitDurable(seq);
+    }
+
+    private AtomicInteger counterFor(String conferenceId) {
+        AtomicInteger counter = counters.get(conferenceId);
+        if (counter != null) {
+            return counter;
+        }
+        Optional<Integer> available = conferenceRepository.findById(conferenceId).map(Conference::getAvailableSlots);
+        return available
+            .map(slots -> counters.computeIfAbsent(conferenceId, id -> new AtomicInteger(slots)))
+            .orElse(null);
+    }
+
+    // Caller holds the rotation read lock
+    private long record(String conferenceId, int delta) {
+        long seq;
+        synchronized (journalLock) {
+            seq = ++lastSeq;
+            byte[] line = (seq + "," + conferenceId + "," + delta + "\n").getBytes(StandardCharsets.UTF_8);
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    journal.write(buffer);
+                }
+            } catch (IOException e) {
+                lastSeq--;
+                throw new UncheckedIOException("Failed to append to slot journal", e);
+            }
+            writtenSeq = seq;
+        }
+        pendingDeltas.computeIfAbsent(conferenceId, id -> new AtomicInteger()).addAndGet(delta);
+        return seq;
+    }
+
+    // Group commit: one fsync covers every entry written before it started
+    private void awaitDurable(long seq) {
+        if (durableSeq >= seq) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durableSeq >= seq) {
+                return;
+            }
+            long target = writtenSeq;
+            try {
+                journal.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync slot journal", e);
+            }
+            durableSeq = target;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush slot counters, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    private void flush() throws IOException {
+        Map<String, Integer> deltas = new HashMap<>();
+        long snapshotSeq;
+
+        rotationLock.writeLock().lock();
+        try {
+            pendingDeltas.forEach((id, delta) -> {
+                int value = delta.getAndSet(0);
+                if (value != 0) {
+                    deltas.put(id, value);
+                }
+            });
+            snapshotSeq = lastSeq;
+            if (deltas.isEmpty()) {
+                return;
+            }
+            synchronized (syncLock) {
+                journal.force(false);
+                journal.close();
+                durableSeq = snapshotSeq;
+                journal = openSegment(snapshotSeq + 1);
+            }
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                conferenceRepository.adjustAvailableSlots(deltas);
+                writeCheckpoint(snapshotSeq);
+            });
+        } catch (RuntimeException e) {
+            // Put the deltas back; the old segments stay on disk until a later flush succeeds
+            deltas.forEach((id, delta) ->
+                pendingDeltas.computeIfAbsent(id, key -> new AtomicInteger()).addAndGet(delta));
+            throw e;
+        }
+        deleteSegmentsBefore(snapshotSeq + 1);
+        log.debug("Flushed slot deltas for {} conferences up to journal seq {}", deltas.size(), snapshotSeq);
+    }
+
+    private void recover() throws IOException {
+        long checkpoint = readCheckpoint();
+        long maxSeq = checkpoint;
+        Map<String, Integer> unapplied = new HashMap<>();
+
+        for (Path segment : listSegments()) {
+            for (String line : completeRecords(segment)) {
+                String[] parts = line.split(",");
+                long seq = Long.parseLong(parts[0]);
+                maxSeq = Math.max(maxSeq, seq);
+                if (seq > checkpoint) {
+                    unapplied.merge(parts[1], Integer.parseInt(parts[2]), Integer::sum);
+                }
+            }
+        }
+
+        long recoveredSeq = maxSeq;
+        unapplied.values().removeIf(delta -> delta == 0);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!unapplied.isEmpty()) {
+                conferenceRepository.adjustAvailableSlots(unapplied);
+            }
+            writeCheckpoint(recoveredSeq);
+        });
+        deleteSegmentsBefore(Long.MAX_VALUE);
+
+        lastSeq = recoveredSeq;
+        writtenSeq = recoveredSeq;
+        durableSeq = recoveredSeq;
+        log.info("Recovered slot journal: replayed deltas for {} conferences, resuming at seq {}",
+            unapplied.size(), recoveredSeq);
+    }
+
+    // Every acknowledged record ends with a newline; bytes after the last one are a torn final
+    // write from a crash that was never acknowledged, even if they happen to parse
+    private static List<String> completeRecords(Path segment) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+        if (end < bytes.length) {
+            log.warn("Ignoring torn record of {} bytes at the end of {}", bytes.length - end, segment.getFileName());
+        }
+        return new String(bytes, 0, end, StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private long readCheckpoint() {
+        List<Long> seqs = jdbcTemplate.queryForList(
+            "SELECT last_seq FROM slot_journal_checkpoints WHERE node_id = ?", Long.class, nodeId);
+        return seqs.isEmpty() ? 0 : seqs.get(0);
+    }
+
+    private void writeCheckpoint(long seq) {
+        String sql = """
+            INSERT INTO slot_journal_checkpoints (node_id, last_seq) VALUES (?, ?)
+            ON CONFLICT (node_id) DO UPDATE SET last_seq = EXCLUDED.last_seq
+        """;
+        jdbcTemplate.update(sql, nodeId, seq);
+    }
+
+    private FileChannel openSegment(long firstSeq) throws IOException {
+        Path segment = journalDir.resolve(SEGMENT_PREFIX + String.format("%020d", firstSeq) + SEGMENT_SUFFIX);
+        return FileChannel.open(segment,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files
+                .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                .sorted()
+                .toList();
+        }
+    }
+
+    private void deleteSegmentsBefore(long firstSeq) throws IOException {
+        List<Path> obsolete = new ArrayList<>();
+        for (Path segment : listSegments()) {
+            String name = segment.getFileName().toString();
+            long segmentStart = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            if (segmentStart < firstSeq) {
+                obsolete.add(segment);
+            }
+        }
+        for (Path segment : obsolete) {
+            Files.deleteIfExists(segment);
+        }
+    }
+}
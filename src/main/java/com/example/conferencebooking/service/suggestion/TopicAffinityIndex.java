@@ -0,0 +1,268 @@
+package com.example.conferencebooking.service.suggestion;
+
+import com.example.conferencebooking.entity.Booking;
+import com.example.conferencebooking.entity.BookingStatus;
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.repository.BookingRepository;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Topic vectors for suggestions. Each upcoming conference has a unit-length vector over
+ * its lowercased topics, and each user has an affinity profile: the sum of the vectors
+ * of their active bookings, updated as bookings are made and cancelled. Each booking's
+ * contribution is remembered, so a cancellation takes back exactly what the booking added
+ * even if the conference's topics were edited in between. A suggestion
+ * walks the conferences sharing a topic with the profile, accumulating the sparse dot
+ * product, and keeps the best ones in a bounded heap; slots left over are filled with
+ * the conferences starting soonest.
+ * Built from the database on startup and kept current by ConferenceServiceImpl and
+ * BookingServiceImpl, including the waitlist cancellations made by the WaitlistEngine.
+ */
+@Slf4j
+@Component
+public class TopicAffinityIndex {
+    // Profile weights closer to zero than this are dropped
+    private static final double EPSILON = 1e-9;
+    private static final Set<BookingStatus> ACTIVE_STATUSES =
+        Set.of(BookingStatus.CONFIRMED, BookingStatus.PROCESSING, BookingStatus.WAITLISTED);
+
+    private final ConferenceRepository conferenceRepository;
+    private final BookingRepository bookingRepository;
+
+    private final Map<String, TopicVector> vectors = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> conferencesByTopic = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<TopicVector> byStart = new ConcurrentSkipListSet<>(TopicVector.BY_START);
+    // Replaced as a whole on every change, so readers always see a consistent profile
+    private final Map<String, Map<String, Double>> profiles = new ConcurrentHashMap<>();
+    // What each active booking added to its user's profile, by booking id
+    private final Map<String, Contribution> contributions = new HashMap<>();
+
+    public TopicAffinityIndex(ConferenceRepository conferenceRepository, BookingRepository bookingRepository) {
+        this.conferenceRepository = conferenceRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<String, Conference> conferences = conferenceRepository.findAll().stream()
+            .collect(Collectors.toMap(Conference::getId, Function.identity()));
+        vectors.clear();
+        conferencesByTopic.clear();
+        byStart.clear();
+        profiles.clear();
+        contributions.clear();
+        conferences.values().forEach(this::put);
+
+        int bookings = 0;
+        for (BookingStatus status : ACTIVE_STATUSES) {
+            for (Booking booking : bookingRepository.findByStatus(status)) {
+                Conference conference = conferences.get(booking.getConferenceId());
+                if (conference != null) {
+                    addContribution(booking, conference);
+                    bookings++;
+                }
+            }
+        }
+        log.info("Indexed topics of {} upcoming conferences and {} active bookings of {} users",
+            vectors.size(), bookings, profiles.size());
+    }
+
+    public synchronized void put(Conference conference) {
+        TopicVector vector = TopicVector.of(conference);
+        if (vector.equals(vectors.get(vector.id()))) {
+            // Slot and version updates leave the vector as it was
+            return;
+        }
+        remove(conference.getId());
+        if (!conference.getStartTimestamp().isAfter(LocalDateTime.now())) {
+            // Only upcoming conferences can be suggested
+            return;
+        }
+        vectors.put(vector.id(), vector);
+        byStart.add(vector);
+        vector.topics().forEach(topic ->
+            conferencesByTopic.computeIfAbsent(topic, t -> ConcurrentHashMap.newKeySet()).add(vector.id()));
+    }
+
+    public synchronized void remove(String conferenceId) {
+        TopicVector vector = vectors.remove(conferenceId);
+        if (vector == null) {
+            return;
+        }
+        byStart.remove(vector);
+        vector.topics().forEach(topic -> conferencesByTopic.computeIfPresent(topic, (t, ids) -> {
+            ids.remove(conferenceId);
+            return ids.isEmpty() ? null : ids;
+        }));
+    }
+
+    // Adds the conference's topics to the user's profile once the booking commits
+    public void recordBooking(Booking booking, Conference conference) {
+        afterCommit(() -> addContribution(booking, conference));
+    }
+
+    // Takes what the booking added back out of its user's profile once the cancellation commits
+    public void recordCancellation(String bookingId) {
+        afterCommit(() -> removeContribution(bookingId));
+    }
+
+    public void recordCancellations(Collection<String> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            afterCommit(() -> bookingIds.forEach(this::removeContribution));
+        }
+    }
+
+    /**
+     * Ids of up to limit upcoming conferences for the user, best first.
+     */
+    public List<String> suggest(String userId, int limit, LocalDateTime now) {
+        Map<String, Double> profile = profiles.getOrDefault(userId, Map.of());
+
+        // Sparse dot product: only conferences sharing a topic with the profile get a score
+        Map<TopicVector, Double> scores = new HashMap<>();
+        List<String> started = new ArrayList<>();
+        profile.forEach((topic, weight) -> {
+            for (String id : conferencesByTopic.getOrDefault(topic, Set.of())) {
+                TopicVector vector = vectors.get(id);
+                if (vector == null) {
+                    continue;
+                }
+                if (!vector.start().isAfter(now)) {
+                    started.add(id);
+                    continue;
+                }
+                scores.merge(vector, weight * vector.weight(), Double::sum);
+            }
+        });
+
+        // Min-heap of the best limit scores; the weakest is evicted first
+        Comparator<Scored> weakestFirst = Comparator.comparingDouble(Scored::score)
+            .thenComparing(Scored::start, Comparator.reverseOrder());
+        PriorityQueue<Scored> best = new PriorityQueue<>(limit + 1, weakestFirst);
+        scores.forEach((vector, score) -> {
+            if (score > EPSILON) {
+                best.add(new Scored(vector.id(), score, vector.start()));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        });
+
+        List<Scored> ranked = new ArrayList<>(best);
+        ranked.sort(weakestFirst.reversed());
+        List<String> suggestions = new ArrayList<>(limit);
+        ranked.forEach(scored -> suggestions.add(scored.id()));
+
+        // Fill up with the conferences starting soonest
+        Set<String> chosen = new HashSet<>(suggestions);
+        for (TopicVector vector : byStart) {
+            if (suggestions.size() >= limit) {
+                break;
+            }
+            if (!vector.start().isAfter(now)) {
+                started.add(vector.id());
+            } else if (chosen.add(vector.id())) {
+                suggestions.add(vector.id());
+            }
+        }
+
+        // Conferences that have started since they were indexed are dropped on the way
+        started.forEach(this::remove);
+        return suggestions;
+    }
+
+    private synchronized void addContribution(Booking booking, Conference conference) {
+        // Booking again after a missed cancellation replaces the old contribution
+        removeContribution(booking.getId());
+        TopicVector vector = TopicVector.of(conference);
+        if (vector.topics().isEmpty()) {
+            return;
+        }
+        Contribution contribution = new Contribution(booking.getUserId(), vector.topics(), vector.weight());
+        contributions.put(booking.getId(), contribution);
+        applyToProfile(contribution, 1);
+    }
+
+    private synchronized void removeContribution(String bookingId) {
+        Contribution contribution = contributions.remove(bookingId);
+        if (contribution != null) {
+            applyToProfile(contribution, -1);
+        }
+    }
+
+    private void applyToProfile(Contribution contribution, int sign) {
+        profiles.compute(contribution.userId(), (id, current) -> {
+            Map<String, Double> updated = current == null ? new HashMap<>() : new HashMap<>(current);
+            for (String topic : contribution.topics()) {
+                double weight = updated.getOrDefault(topic, 0.0) + sign * contribution.weight();
+                // Only rounding can take a weight below zero, since exactly what was added is removed
+                if (weight < EPSILON) {
+                    updated.remove(topic);
+                } else {
+                    updated.put(topic, weight);
+                }
+            }
+            return updated.isEmpty() ? null : Collections.unmodifiableMap(updated);
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Scored(String id, double score, LocalDateTime start) {
+    }
+
+    private record Contribution(String userId, Set<String> topics, double weight) {
+    }
+
+    /**
+     * A conference's distinct lowercased topics, each weighted 1/sqrt(n) so the vector has
+     * unit length and conferences with many topics do not outscore focused ones.
+     */
+    private record TopicVector(String id, Set<String> topics, double weight, LocalDateTime start) {
+        static final Comparator<TopicVector> BY_START =
+            Comparator.comparing(TopicVector::start).thenComparing(TopicVector::id);
+
+        static TopicVector of(Conference conference) {
+            Set<String> topics = conference.getTopics() == null ? Set.of()
+                : conference.getTopics().stream()
+                    .filter(topic -> topic != null && !topic.isBlank())
+                    .map(topic -> topic.trim().toLowerCase())
+                    .collect(Collectors.toUnmodifiableSet());
+            double weight = topics.isEmpty() ? 0 : 1 / Math.sqrt(topics.size());
+            return new TopicVector(conference.getId(), topics, weight, conference.getStartTimestamp());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.conferencebooking.service.waitlist;
+
+import com.example.conferencebooking.entity.Booking;
+import com.example.conferencebooking.entity.BookingStatus;
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Waitlists held in memory as one OrderedWaitlist per conference, served in
+ * WaitlistEntry order (tier, retries, original waitlist time). The bookings table stays
+ * the source of truth: the waitlists are rebuilt from WAITLISTED bookings on startup and
+ * every status change is one batch update. Meant for a single application instance.
+ * Changes to the in-memory order are applied after commit, and heads taken by a
+ * transaction that rolls back are put back in their old place.
+ */
+@Slf4j
+public class InMemoryWaitlistEngine implements WaitlistEngine {
+    private final BookingRepository bookingRepository;
+    private final Map<String, OrderedWaitlist> waitlists = new ConcurrentHashMap<>();
+
+    public InMemoryWaitlistEngine(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Booking> waitlisted = bookingRepository.findByStatus(BookingStatus.WAITLISTED);
+        waitlists.clear();
+        waitlisted.forEach(booking -> waitlistOf(booking.getConferenceId()).add(WaitlistEntry.of(booking)));
+        log.info("Loaded {} waitlisted bookings into {} waitlists", waitlisted.size(), waitlists.size());
+    }
+
+    @Override
+    public void enqueue(Booking booking, Conference conference) {
+        WaitlistEntry entry = WaitlistEntry.of(booking);
+        afterCommit(() -> {
+            if (waitlistOf(conference.getId()).add(entry)) {
+                log.info("Added booking {} to waitlist of conference {}", booking.getId(), conference.getId());
+            } else {
+                log.info("Booking {} already in waitlist, skipping", booking.getId());
+            }
+        });
+    }
+
+    @Override
+    public List<String> promoteHeads(Conference conference, int limit) {
+        OrderedWaitlist waitlist = waitlists.get(conference.getId());
+        if (waitlist == null || limit <= 0) {
+            return List.of();
+        }
+
+        List<String> promotedIds = new ArrayList<>();
+        List<WaitlistEntry> taken = new ArrayList<>();
+        try {
+            while (promotedIds.size() < limit) {
+                List<WaitlistEntry> heads = waitlist.pollFirst(limit - promotedIds.size());
+                if (heads.isEmpty()) {
+                    break;
+                }
+                taken.addAll(heads);
+
+                // Entries whose booking left the waitlist in the meantime are not promoted
+                // and stay dropped
+                List<String> candidateIds = heads.stream().map(WaitlistEntry::bookingId).toList();
+                promotedIds.addAll(bookingRepository.promoteWaitlistedBookings(candidateIds, LocalDateTime.now()));
+            }
+        } catch (RuntimeException e) {
+            taken.forEach(waitlist::add);
+            throw e;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Set<String> promoted = Set.copyOf(promotedIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        // The promotions were rolled back, so these bookings are waiting again
+                        taken.stream()
+                            .filter(entry -> promoted.contains(entry.bookingId()))
+                            .forEach(waitlist::add);
+                    }
+                }
+            });
+        }
+        log.info("Moved {} bookings of conference {} from waitlist to processing",
+            promotedIds.size(), conference.getId());
+        return promotedIds;
+    }
+
+    @Override
+    public List<String> removeUser(String userId, Collection<String> conferenceIds) {
+        List<String> cancelledIds = bookingRepository.cancelWaitlistedBookings(userId, conferenceIds);
+        if (!cancelledIds.isEmpty()) {
+            List<OrderedWaitlist> affected = conferenceIds.stream()
+                .map(waitlists::get)
+                .filter(Objects::nonNull)
+                .toList();
+            afterCommit(() -> cancelledIds.forEach(id -> affected.forEach(waitlist -> waitlist.remove(id))));
+        }
+        return cancelledIds;
+    }
+
+    @Override
+    public List<String> cancelAll(Conference conference) {
+        List<String> cancelled = bookingRepository.cancelAllWaitlistedBookings(conference.getId());
+        afterCommit(() -> waitlists.remove(conference.getId()));
+        return cancelled;
+    }
+
+    private OrderedWaitlist waitlistOf(String conferenceId) {
+        return waitlists.computeIfAbsent(conferenceId, id -> new OrderedWaitlist());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.conferencebooking.service.waitlist;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * One conference's waitlist in WaitlistEntry order. Adding, removing by booking id and
+ * taking the head are all O(log n); removal never touches the other entries, so the
+ * relative order of everyone else stays as it was.
+ */
+public class OrderedWaitlist {
+    private final TreeSet<WaitlistEntry> entries = new TreeSet<>();
+    private final Map<String, WaitlistEntry> byBookingId = new HashMap<>();
+
+    // Adds the entry, or moves it if the booking is already waiting with another score.
+    // Returns false if the booking is already waiting with the same score.
+    public synchronized boolean add(WaitlistEntry entry) {
+        WaitlistEntry previous = byBookingId.put(entry.bookingId(), entry);
+        if (entry.equals(previous)) {
+            return false;
+        }
+        if (previous != null) {
+            entries.remove(previous);
+        }
+        entries.add(entry);
+        return true;
+    }
+
+    public synchronized boolean remove(String bookingId) {
+        WaitlistEntry entry = byBookingId.remove(bookingId);
+        return entry != null && entries.remove(entry);
+    }
+
+    // Removes and returns up to limit entries from the head, in order
+    public synchronized List<WaitlistEntry> pollFirst(int limit) {
+        List<WaitlistEntry> polled = new ArrayList<>(Math.min(limit, entries.size()));
+        while (polled.size() < limit && !entries.isEmpty()) {
+            WaitlistEntry entry = entries.pollFirst();
+            byBookingId.remove(entry.bookingId());
+            polled.add(entry);
+        }
+        return polled;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return entries.isEmpty();
+    }
+}
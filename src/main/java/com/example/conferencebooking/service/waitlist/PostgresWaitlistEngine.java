@@ -0,0 +1,118 @@
+package com.example.conferencebooking.service.waitlist;
+
+import com.example.conferencebooking.entity.Booking;
+import com.example.conferencebooking.entity.Conference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Waitlist positions in the waitlist_entries table, so no message broker is needed.
+ * Entries are taken in WaitlistEntry order (tier, retries, original waitlist time),
+ * which idx_waitlist_entries_conference_score serves as an index range scan.
+ * Every operation is one statement that joins the caller's transaction: the entry and
+ * the booking status change together or not at all. Dequeuing takes the heads with
+ * FOR UPDATE SKIP LOCKED, so concurrent promotions on one conference never block on or
+ * hand out the same entry.
+ */
+@Slf4j
+public class PostgresWaitlistEngine implements WaitlistEngine {
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresWaitlistEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void enqueue(Booking booking, Conference conference) {
+        // The booking id is the key, so enqueueing the same booking twice is a no-op.
+        // The ordering score is copied from the booking row.
+        String sql = """
+            INSERT INTO waitlist_entries (booking_id, conference_id, user_id, tier, retries, waitlisted_at)
+            SELECT id, conference_id, user_id, waitlist_tier, waitlist_retries,
+                   COALESCE(waitlisted_at, booking_time)
+            FROM bookings
+            WHERE id = ?
+            ON CONFLICT (booking_id) DO NOTHING
+        """;
+        int inserted = jdbcTemplate.update(sql, booking.getId());
+        if (inserted == 0) {
+            log.info("Booking {} already in waitlist, skipping", booking.getId());
+        } else {
+            log.info("Added booking {} to waitlist of conference {}", booking.getId(), conference.getId());
+        }
+    }
+
+    @Override
+    public List<String> promoteHeads(Conference conference, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        // Entries whose booking was cancelled directly are passed over and swept by cancelAll
+        String sql = """
+            WITH heads AS (
+                SELECT w.booking_id
+                FROM waitlist_entries w
+                JOIN bookings b ON b.id = w.booking_id
+                WHERE w.conference_id = ? AND b.status = 'WAITLISTED'
+                ORDER BY w.tier, w.retries, w.waitlisted_at, w.position
+                LIMIT ?
+                FOR UPDATE OF w SKIP LOCKED
+            ), removed AS (
+                DELETE FROM waitlist_entries w
+                USING heads
+                WHERE w.booking_id = heads.booking_id
+                RETURNING w.booking_id
+            )
+            UPDATE bookings b SET status = 'PROCESSING', booking_time = ?
+            FROM removed
+            WHERE b.id = removed.booking_id
+            RETURNING b.id
+        """;
+        List<String> promoted = jdbcTemplate.queryForList(sql, String.class,
+            conference.getId(), limit, LocalDateTime.now());
+        log.info("Moved {} bookings of conference {} from waitlist to processing",
+            promoted.size(), conference.getId());
+        return promoted;
+    }
+
+    @Override
+    public List<String> removeUser(String userId, Collection<String> conferenceIds) {
+        String sql = """
+            WITH removed AS (
+                DELETE FROM waitlist_entries
+                WHERE user_id = ? AND conference_id = ANY(?)
+            )
+            UPDATE bookings SET status = 'CANCELLED'
+            WHERE user_id = ? AND conference_id = ANY(?) AND status = 'WAITLISTED'
+            RETURNING id
+        """;
+        return jdbcTemplate.query(sql,
+            ps -> {
+                Array ids = ps.getConnection().createArrayOf("varchar", conferenceIds.toArray());
+                ps.setString(1, userId);
+                ps.setArray(2, ids);
+                ps.setString(3, userId);
+                ps.setArray(4, ids);
+            },
+            (rs, rowNum) -> rs.getString("id"));
+    }
+
+    @Override
+    public List<String> cancelAll(Conference conference) {
+        String sql = """
+            WITH removed AS (
+                DELETE FROM waitlist_entries WHERE conference_id = ?
+            )
+            UPDATE bookings SET status = 'CANCELLED'
+            WHERE conference_id = ? AND status = 'WAITLISTED'
+            RETURNING id
+        """;
+        return jdbcTemplate.queryForList(sql, String.class, conference.getId(), conference.getId());
+    }
+}
@@ -0,0 +1,366 @@
+package com.example.conferencebooking.service.waitlist;
+
+import com.example.conferencebooking.entity.Booking;
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.message.BookingMessage;
+import com.example.conferencebooking.message.BookingMessageCodec;
+import com.example.conferencebooking.repository.BookingRepository;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import com.example.conferencebooking.service.idempotency.IdempotencyStore;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One durable RabbitMQ queue per conference, named conference.waitlist.<id> and
+ * declared through the WaitlistQueueRegistry on the first waitlisted booking. Messages carry only the booking id; entries
+ * whose booking left the waitlist in the meantime are dropped when they are dequeued.
+ * Enqueues go through the WaitlistPublisher after commit, with broker confirms.
+ * A booking is marked published once its message is confirmed. A publish that fails is
+ * retried after one recovery interval, and a recovery sweep, run on startup and then periodically,
+ * republishes waitlisted bookings that were never marked, e.g. because the app stopped
+ * between commit and confirm. Delivery is at least once; a duplicate message is dropped
+ * like any other stale entry, since its booking is no longer waitlisted.
+ */
+@Slf4j
+public class RabbitWaitlistEngine implements WaitlistEngine {
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final BookingRepository bookingRepository;
+    private final ConferenceRepository conferenceRepository;
+    private final IdempotencyStore idempotencyStore;
+    private final WaitlistPublisher waitlistPublisher;
+    private final WaitlistQueueRegistry waitlistQueueRegistry;
+    private final Duration recoveryInterval;
+    private final Duration recoveryGrace;
+    private final int recoveryBatchSize;
+
+    // Bookings with a publish in flight or a confirm not yet recorded, so the sweep skips them
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    // Confirmed bookings, marked published in one batch by the next sweep
+    private final Queue<Booking> confirmed = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-recovery");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RabbitWaitlistEngine(RabbitTemplate rabbitTemplate,
+                                AmqpAdmin amqpAdmin,
+                                BookingRepository bookingRepository,
+                                ConferenceRepository conferenceRepository,
+                                IdempotencyStore idempotencyStore,
+                                WaitlistPublisher waitlistPublisher,
+                                WaitlistQueueRegistry waitlistQueueRegistry,
+                                Duration recoveryInterval,
+                                Duration recoveryGrace,
+                                int recoveryBatchSize) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.bookingRepository = bookingRepository;
+        this.conferenceRepository = conferenceRepository;
+        this.idempotencyStore = idempotencyStore;
+        this.waitlistPublisher = waitlistPublisher;
+        this.waitlistQueueRegistry = waitlistQueueRegistry;
+        this.recoveryInterval = recoveryInterval;
+        this.recoveryGrace = recoveryGrace;
+        this.recoveryBatchSize = recoveryBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(this::recover, 0, recoveryInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        try {
+            flushConfirmed();
+        } catch (RuntimeException e) {
+            // The unmarked bookings are republished by the next startup sweep
+            log.warn("Failed to mark confirmed waitlist messages on shutdown: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void enqueue(Booking booking, Conference conference) {
+        // Ensure the conference has a queue
+        String queueId = waitlistQueueRegistry.queueFor(conference);
+
+        String idempotencyKey = booking.getId() + "_" + booking.getBookingTime();
+
+        // Check if this booking was already processed
+        if (!idempotencyStore.markIfAbsent(idempotencyKey)) {
+            log.info("Booking {} already in waitlist queue, skipping", booking.getId());
+            return;
+        }
+
+        // Publish only once the waitlisted booking is committed; the commit happens under the
+        // conference lock, so the publisher sees a conference's messages in waitlist order
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(booking, queueId);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        idempotencyStore.remove(idempotencyKey);
+                    }
+                }
+            });
+        } else {
+            publish(booking, queueId);
+        }
+    }
+
+    private void publish(Booking booking, String queueId) {
+        pending.add(booking.getId());
+        String idempotencyKey = booking.getId() + "_" + booking.getBookingTime();
+        // Add to queue with idempotency key in message properties
+        BookingMessage message = new BookingMessage(booking.getId());
+        CompletableFuture<Void> result;
+        try {
+            result = waitlistPublisher.publish(queueId, message, m -> {
+                m.getMessageProperties().setMessageId(idempotencyKey);
+                m.getMessageProperties().setTimestamp(
+                    java.util.Date.from(booking.getBookingTime()
+                        .atZone(java.time.ZoneId.systemDefault())
+                        .toInstant())
+                );
+                return m;
+            });
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((ignored, error) -> {
+            if (error == null) {
+                confirmed.add(booking);
+                log.info("Added booking {} to waitlist queue {} with idempotency key {}",
+                    booking.getId(), queueId, idempotencyKey);
+            } else {
+                // The booking is already committed as WAITLISTED, so its message must not be lost
+                log.warn("Failed to add booking {} to waitlist queue {}, retrying in {}: {}",
+                    booking.getId(), queueId, recoveryInterval, error.getMessage());
+                retry(booking, queueId);
+            }
+        });
+    }
+
+    private void retry(Booking booking, String queueId) {
+        try {
+            executor.schedule(() -> publish(booking, queueId), recoveryInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the startup sweep republishes it
+            pending.remove(booking.getId());
+        }
+    }
+
+    /**
+     * Marks the bookings confirmed since the last run as published, then republishes
+     * waitlisted bookings that are still unmarked after the grace period and have no
+     * publish in flight here.
+     */
+    void recover() {
+        try {
+            flushConfirmed();
+            List<Booking> lost = bookingRepository.findUnpublishedWaitlistedBookings(
+                    LocalDateTime.now().minus(recoveryGrace), recoveryBatchSize).stream()
+                .filter(booking -> !pending.contains(booking.getId()))
+                .toList();
+            if (lost.isEmpty()) {
+                return;
+            }
+
+            Set<String> conferenceIds = lost.stream().map(Booking::getConferenceId).collect(Collectors.toSet());
+            Map<String, Conference> conferences = conferenceRepository.findAllByIds(conferenceIds).stream()
+                .collect(Collectors.toMap(Conference::getId, Function.identity()));
+            for (Booking booking : lost) {
+                Conference conference = conferences.get(booking.getConferenceId());
+                if (conference != null) {
+                    publish(booking, waitlistQueueRegistry.queueFor(conference));
+                }
+            }
+            log.warn("Republished {} waitlisted bookings without a confirmed queue message", lost.size());
+        } catch (RuntimeException e) {
+            // Caught so the periodic sweep keeps running
+            log.error("Waitlist recovery sweep failed", e);
+        }
+    }
+
+    private void flushConfirmed() {
+        List<Booking> batch = new ArrayList<>();
+        for (Booking booking = confirmed.poll(); booking != null; booking = confirmed.poll()) {
+            batch.add(booking);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            bookingRepository.markWaitlistPublished(batch);
+        } catch (RuntimeException e) {
+            confirmed.addAll(batch);
+            throw e;
+        }
+        batch.forEach(booking -> pending.remove(booking.getId()));
+    }
+
+    @Override
+    public List<String> promoteHeads(Conference conference, int limit) {
+        String queueId = conference.getWaitlistQueueId();
+        if (queueId == null || limit <= 0) {
+            return List.of();
+        }
+
+        log.info("Promoting up to {} waitlisted bookings from queue: {}", limit, queueId);
+        // A channel from the connection factory's cache, held until the promotion settles: its
+        // deliveries stay unacked until then, and settle() acks or nacks them before close()
+        // hands the channel back to the cache, so it never goes back with deliveries open
+        Channel channel = rabbitTemplate.getConnectionFactory().createConnection().createChannel(false);
+        List<String> promotedIds = new ArrayList<>();
+        long promotedUpTo = -1;
+        try {
+            while (promotedIds.size() < limit) {
+                // Pull as many heads as seats are still wanted
+                int wanted = limit - promotedIds.size();
+                List<String> candidateIds = new ArrayList<>(wanted);
+                List<Long> deliveryTags = new ArrayList<>(wanted);
+                boolean drained = false;
+                while (candidateIds.size() < wanted) {
+                    GetResponse response = channel.basicGet(queueId, false);
+                    if (response == null) {
+                        drained = true;
+                        break;
+                    }
+                    long deliveryTag = response.getEnvelope().getDeliveryTag();
+                    try {
+                        candidateIds.add(BookingMessageCodec.decodeBookingId(response.getBody()));
+                        deliveryTags.add(deliveryTag);
+                    } catch (IllegalArgumentException e) {
+                        // Never requeue a message that can't be decoded; it is dead-lettered if
+                        // the queue has a dead letter exchange and dropped otherwise
+                        channel.basicReject(deliveryTag, false);
+                        log.error("Rejected malformed message in waitlist queue {}: {}", queueId, e.getMessage());
+                    }
+                }
+                if (candidateIds.isEmpty()) {
+                    break;
+                }
+
+                try {
+                    // One update for the whole batch; entries whose booking left the waitlist
+                    // in the meantime are not promoted and are dropped with the rest
+                    promotedIds.addAll(bookingRepository.promoteWaitlistedBookings(candidateIds, LocalDateTime.now()));
+                    promotedUpTo = deliveryTags.get(deliveryTags.size() - 1);
+                } catch (Exception e) {
+                    // Requeue just this batch; earlier batches were promoted and settle with the transaction
+                    for (long deliveryTag : deliveryTags) {
+                        channel.basicNack(deliveryTag, false, true);
+                    }
+                    log.error("Failed to promote waitlisted bookings: {}", e.getMessage());
+                    break;
+                }
+
+                if (drained) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            settle(channel, queueId, promotedUpTo, false);
+            throw new AmqpIOException(e);
+        } catch (RuntimeException e) {
+            settle(channel, queueId, promotedUpTo, false);
+            throw e;
+        }
+
+        settleAfterCompletion(channel, queueId, promotedUpTo);
+        log.info("Moved {} bookings from waitlist to processing", promotedIds.size());
+        return promotedIds;
+    }
+
+    // Ack the promoted messages only once the promotion is committed; on rollback they go back
+    // to the queue so the bookings are promoted again later
+    private void settleAfterCompletion(Channel channel, String queueId, long deliveryTag) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    settle(channel, queueId, deliveryTag, status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            settle(channel, queueId, deliveryTag, true);
+        }
+    }
+
+    private void settle(Channel channel, String queueId, long deliveryTag, boolean ack) {
+        try {
+            if (deliveryTag >= 0) {
+                if (ack) {
+                    channel.basicAck(deliveryTag, true);
+                } else {
+                    channel.basicNack(deliveryTag, true, true);
+                }
+            }
+        } catch (IOException e) {
+            // The broker requeues unsettled deliveries once the channel is gone
+            log.error("Failed to settle promoted messages of waitlist queue {}: {}", queueId, e.getMessage());
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException | TimeoutException e) {
+                log.warn("Failed to close waitlist channel: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public List<String> removeUser(String userId, Collection<String> conferenceIds) {
+        // Cancelling the bookings is enough: their queue messages become stale and are
+        // dropped by whoever dequeues them, so the queues are never drained or reordered
+        return bookingRepository.cancelWaitlistedBookings(userId, conferenceIds);
+    }
+
+    @Override
+    public List<String> cancelAll(Conference conference) {
+        // Cancel all waitlisted bookings in one update
+        List<String> cancelled = bookingRepository.cancelAllWaitlistedBookings(conference.getId());
+
+        // Clear the queue in one broker call; the queue itself stays declared
+        if (conference.getWaitlistQueueId() != null) {
+            amqpAdmin.purgeQueue(conference.getWaitlistQueueId(), false);
+        }
+        return cancelled;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.conferencebooking.service.waitlist;
+
+import com.example.conferencebooking.entity.Booking;
+import com.example.conferencebooking.entity.Conference;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Keeps the order of waitlisted bookings per conference: FIFO for the rabbitmq engine,
+// WaitlistEntry order (tier, retries, original waitlist time) for the others. Booking
+// status in the bookings table stays the source of truth; the engine only tracks who is next.
+public interface WaitlistEngine {
+    // Adds an already saved WAITLISTED booking to its conference's waitlist
+    void enqueue(Booking booking, Conference conference);
+
+    // Moves up to limit bookings from the head of the waitlist to PROCESSING in one batch
+    // and returns their ids; fewer if the waitlist runs out
+    List<String> promoteHeads(Conference conference, int limit);
+
+    // Moves the first still-waitlisted booking to PROCESSING and returns its id,
+    // or empty if nobody is waiting
+    default Optional<String> promoteHead(Conference conference) {
+        return promoteHeads(conference, 1).stream().findFirst();
+    }
+
+    // Cancels the user's waitlisted bookings for the given conferences, returns their ids
+    List<String> removeUser(String userId, Collection<String> conferenceIds);
+
+    // Cancels every waitlisted booking of the conference and discards its waitlist,
+    // returns the ids of the cancelled bookings
+    List<String> cancelAll(Conference conference);
+}
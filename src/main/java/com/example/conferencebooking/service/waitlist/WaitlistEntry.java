@@ -0,0 +1,35 @@
+package com.example.conferencebooking.service.waitlist;
+
+import com.example.conferencebooking.entity.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * A booking's place in a waitlist. Entries are served by tier first, then by how many
+ * confirmation windows the booking already let expire, then by the time it first joined
+ * the waitlist; the booking id breaks exact ties so the order is total. A booking that
+ * goes back to the waitlist keeps its original time, so plain FIFO holds within a tier
+ * and retry count.
+ */
+public record WaitlistEntry(String bookingId, int tier, int retries, LocalDateTime waitlistedAt)
+        implements Comparable<WaitlistEntry> {
+
+    private static final Comparator<WaitlistEntry> ORDER = Comparator
+        .comparingInt(WaitlistEntry::tier)
+        .thenComparingInt(WaitlistEntry::retries)
+        .thenComparing(WaitlistEntry::waitlistedAt)
+        .thenComparing(WaitlistEntry::bookingId);
+
+    public static WaitlistEntry of(Booking booking) {
+        LocalDateTime waitlistedAt = booking.getWaitlistedAt() != null
+            ? booking.getWaitlistedAt()
+            : booking.getBookingTime();
+        return new WaitlistEntry(booking.getId(), booking.getWaitlistTier(), booking.getWaitlistRetries(), waitlistedAt);
+    }
+
+    @Override
+    public int compareTo(WaitlistEntry other) {
+        return ORDER.compare(this, other);
+    }
+}
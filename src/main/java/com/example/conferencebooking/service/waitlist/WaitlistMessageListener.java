@@ -0,0 +1,134 @@
+package com.example.conferencebooking.service.waitlist;
+
+import com.example.conferencebooking.message.BookingMessage;
+import com.example.conferencebooking.repository.BookingRepository;
+import com.example.conferencebooking.service.expiry.BookingExpiryScheduler;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumes the shared waitlist queue in batches with manual acknowledgement: each batch
+ * moves its bookings to PROCESSING with one update and is then acked with a single
+ * basicAck(multiple=true). A batch that fails transiently is requeued as a whole; any other
+ * failure is retried message by message and only the failing messages are rejected, so one bad
+ * message can't send the batch round a redelivery loop.
+ * Prefetch, batch size and consumer scaling are set on the listener container factory.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.waitlist.engine", havingValue = "rabbitmq", matchIfMissing = true)
+public class WaitlistMessageListener {
+    private final BookingRepository bookingRepository;
+    private final BookingExpiryScheduler bookingExpiryScheduler;
+    private final Timer batchTimer;
+    private final Timer messageTimer;
+    private final Counter messagesCounter;
+    private final Counter redeliveriesCounter;
+
+    public WaitlistMessageListener(BookingRepository bookingRepository,
+                                   BookingExpiryScheduler bookingExpiryScheduler,
+                                   MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingExpiryScheduler = bookingExpiryScheduler;
+        this.batchTimer = Timer.builder("booking.waitlist.consumer.batch")
+            .description("Time from handing a batch to the listener until it is acknowledged, recorded once per batch")
+            .register(meterRegistry);
+        this.messageTimer = Timer.builder("booking.waitlist.consumer.message")
+            .description("Processing time per waitlist message: its batch's time divided by the batch size")
+            .register(meterRegistry);
+        this.messagesCounter = Counter.builder("booking.waitlist.consumer.messages")
+            .description("Waitlist messages delivered to the consumer")
+            .register(meterRegistry);
+        this.redeliveriesCounter = Counter.builder("booking.waitlist.consumer.redeliveries")
+            .description("Waitlist messages delivered again after a nack or consumer failure")
+            .register(meterRegistry);
+    }
+
+    @RabbitListener(queues = "${rabbitmq.queue.name}")
+    public void handleWaitlistMessages(List<Message<BookingMessage>> messages, Channel channel) throws IOException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        long batchStart = System.nanoTime();
+        long lastDeliveryTag = messages.get(messages.size() - 1).getHeaders()
+            .get(AmqpHeaders.DELIVERY_TAG, Long.class);
+
+        messagesCounter.increment(messages.size());
+        long redelivered = messages.stream()
+            .filter(m -> Boolean.TRUE.equals(m.getHeaders().get(AmqpHeaders.REDELIVERED, Boolean.class)))
+            .count();
+        redeliveriesCounter.increment(redelivered);
+
+        try {
+            List<String> bookingIds = messages.stream()
+                .map(m -> m.getPayload().getBookingId())
+                .toList();
+
+            // Bookings that are no longer waitlisted are left alone and their messages dropped
+            LocalDateTime promotedAt = LocalDateTime.now();
+            List<String> promoted = bookingRepository.promoteWaitlistedBookings(bookingIds, promotedAt);
+            channel.basicAck(lastDeliveryTag, true);
+            promoted.forEach(id -> bookingExpiryScheduler.schedule(id, promotedAt));
+            log.debug("Processed {} waitlist messages, {} bookings moved to processing",
+                messages.size(), promoted.size());
+        } catch (Exception e) {
+            if (isTransient(e)) {
+                // Worth another try once the database is back; requeue the batch as is
+                channel.basicNack(lastDeliveryTag, true, true);
+                log.warn("Transient error processing waitlist messages, requeued: {}", e.getMessage());
+            } else {
+                // Requeueing would fail the same way forever, so find the messages that cause it
+                processOneByOne(messages, channel);
+            }
+        }
+        long elapsed = System.nanoTime() - batchStart;
+        batchTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        // Messages of a batch are processed together, so each gets an equal share
+        long perMessage = elapsed / messages.size();
+        for (int i = 0; i < messages.size(); i++) {
+            messageTimer.record(perMessage, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Only a failing message is rejected without requeue, so it is dead-lettered if the queue has
+    // a dead letter exchange and dropped otherwise; transient failures still requeue
+    private void processOneByOne(List<Message<BookingMessage>> messages, Channel channel) throws IOException {
+        for (Message<BookingMessage> message : messages) {
+            long deliveryTag = message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+            String bookingId = message.getPayload() == null ? null : message.getPayload().getBookingId();
+            try {
+                LocalDateTime promotedAt = LocalDateTime.now();
+                List<String> promoted = bookingRepository.promoteWaitlistedBookings(List.of(bookingId), promotedAt);
+                channel.basicAck(deliveryTag, false);
+                promoted.forEach(id -> bookingExpiryScheduler.schedule(id, promotedAt));
+            } catch (Exception e) {
+                boolean requeue = isTransient(e);
+                channel.basicNack(deliveryTag, false, requeue);
+                log.error("Error processing waitlist message for booking {} ({}): {}",
+                    bookingId, requeue ? "requeued" : "rejected", e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isTransient(Throwable error) {
+        return error instanceof TransientDataAccessException
+            || error instanceof RecoverableDataAccessException
+            || error instanceof DataAccessResourceFailureException;
+    }
+}
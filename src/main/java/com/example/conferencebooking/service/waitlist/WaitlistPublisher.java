@@ -0,0 +1,211 @@
+package com.example.conferencebooking.service.waitlist;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes waitlist messages in batches and completes each one only when the broker
+ * has confirmed it. Queues are spread over a fixed set of stripes, each drained by one
+ * thread that publishes a whole batch on a single channel and waits for the batch to be
+ * confirmed before sending the next, so messages for one conference reach the broker in
+ * submission order.
+ * A nacked or unconfirmed message is republished, up to maxAttempts times, at the head of
+ * its stripe, ahead of anything submitted after it; delivery is at least once and a retried
+ * message can only land behind messages of its own batch.
+ * At most maxInFlight messages are queued or unconfirmed at a time. Submissions beyond that
+ * fail immediately instead of blocking, since they are made after commit by threads that may
+ * still hold a conference lock. A failed message is the caller's to retry; RabbitWaitlistEngine
+ * republishes it until it is confirmed.
+ */
+@Slf4j
+public class WaitlistPublisher implements AutoCloseable {
+    private final RabbitTemplate rabbitTemplate;
+    private final Semaphore inFlight;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+    private final int maxAttempts;
+    private final List<BlockingDeque<PendingMessage>> stripes = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public WaitlistPublisher(RabbitTemplate rabbitTemplate,
+                             int stripeCount,
+                             int batchSize,
+                             int maxInFlight,
+                             Duration confirmTimeout,
+                             int maxAttempts) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+        this.maxAttempts = maxAttempts;
+        for (int i = 0; i < stripeCount; i++) {
+            BlockingDeque<PendingMessage> stripe = new LinkedBlockingDeque<>();
+            Thread worker = new Thread(() -> drain(stripe), "waitlist-publisher-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            stripes.add(stripe);
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Queues a message for publishing to the given queue. The returned future completes
+     * once the broker has confirmed the message, or exceptionally once every attempt failed
+     * or right away if maxInFlight messages are already pending.
+     */
+    public CompletableFuture<Void> publish(String queueId, Object payload, MessagePostProcessor postProcessor) {
+        if (!running) {
+            throw new IllegalStateException("Waitlist publisher is shut down");
+        }
+        if (!inFlight.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                "Waitlist publisher backlog is full, message for " + queueId + " not queued"));
+        }
+        PendingMessage pending = new PendingMessage(queueId, payload, postProcessor, new CompletableFuture<>());
+        stripeFor(queueId).add(pending);
+        return pending.result;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private BlockingDeque<PendingMessage> stripeFor(String queueId) {
+        return stripes.get(Math.floorMod(queueId.hashCode(), stripes.size()));
+    }
+
+    private void drain(BlockingDeque<PendingMessage> stripe) {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !stripe.isEmpty()) {
+            try {
+                PendingMessage first = stripe.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                stripe.drainTo(batch, batchSize - 1);
+                List<Failure> failures = publishBatch(batch);
+                // Push back in reverse so the retries keep their order at the head of the stripe
+                for (int i = failures.size() - 1; i >= 0; i--) {
+                    retryOrFail(stripe, failures.get(i));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in waitlist publisher", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Sends the batch and waits until all of it is confirmed or the confirm timeout passes;
+    // returns the messages that were not confirmed, in batch order
+    private List<Failure> publishBatch(List<PendingMessage> batch) throws InterruptedException {
+        List<CompletableFuture<CorrelationData.Confirm>> confirms = new ArrayList<>(batch.size());
+        String sendError = null;
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (PendingMessage pending : batch) {
+                    CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+                    operations.convertAndSend("", pending.queueId, pending.payload, pending.postProcessor, correlation);
+                    confirms.add(correlation.getFuture());
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Messages after the failed send never reached the broker
+            sendError = e.toString();
+        }
+
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        for (CompletableFuture<CorrelationData.Confirm> confirm : confirms) {
+            try {
+                confirm.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                // Sorted out per message below
+            }
+        }
+
+        List<Failure> failures = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMessage pending = batch.get(i);
+            if (i >= confirms.size()) {
+                failures.add(new Failure(pending, sendError));
+                continue;
+            }
+            CompletableFuture<CorrelationData.Confirm> confirm = confirms.get(i);
+            if (!confirm.isDone()) {
+                failures.add(new Failure(pending, "no confirm within " + confirmTimeout));
+            } else if (confirm.isCompletedExceptionally()) {
+                failures.add(new Failure(pending, "confirm failed"));
+            } else if (!confirm.join().isAck()) {
+                failures.add(new Failure(pending, confirm.join().getReason()));
+            } else {
+                complete(pending, null);
+            }
+        }
+        return failures;
+    }
+
+    private void retryOrFail(BlockingDeque<PendingMessage> stripe, Failure failure) {
+        PendingMessage pending = failure.pending();
+        pending.attempts++;
+        if (pending.attempts < maxAttempts && running) {
+            log.warn("Waitlist message for {} not confirmed ({}), retrying", pending.queueId, failure.reason());
+            stripe.addFirst(pending);
+        } else {
+            complete(pending, new IllegalStateException(
+                "Waitlist message for " + pending.queueId + " not confirmed: " + failure.reason()));
+        }
+    }
+
+    private void complete(PendingMessage pending, Exception error) {
+        inFlight.release();
+        if (error == null) {
+            pending.result.complete(null);
+        } else {
+            pending.result.completeExceptionally(error);
+        }
+    }
+
+    private record Failure(PendingMessage pending, String reason) {
+    }
+
+    private static class PendingMessage {
+        private final String queueId;
+        private final Object payload;
+        private final MessagePostProcessor postProcessor;
+        private final CompletableFuture<Void> result;
+        private int attempts;
+
+        private PendingMessage(String queueId, Object payload, MessagePostProcessor postProcessor,
+                               CompletableFuture<Void> result) {
+            this.queueId = queueId;
+            this.payload = payload;
+            this.postProcessor = postProcessor;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.conferencebooking.service.waitlist;
+
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Queue;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which per-conference waitlist queues this JVM has declared. On startup every
+ * queue recorded on a conference is declared once; after that a queue is declared the
+ * first time its conference gets a waitlisted booking, exactly once even under concurrent
+ * enqueues, and the enqueue path makes no broker round trip for known queues.
+ */
+@Slf4j
+public class WaitlistQueueRegistry {
+    private static final String QUEUE_PREFIX = "conference.waitlist.";
+
+    private final AmqpAdmin amqpAdmin;
+    private final ConferenceRepository conferenceRepository;
+    private final Map<String, String> declaredQueues = new ConcurrentHashMap<>();
+
+    public WaitlistQueueRegistry(AmqpAdmin amqpAdmin, ConferenceRepository conferenceRepository) {
+        this.amqpAdmin = amqpAdmin;
+        this.conferenceRepository = conferenceRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<Conference> withQueues = conferenceRepository.findAll().stream()
+            .filter(c -> c.getWaitlistQueueId() != null)
+            .toList();
+        for (Conference conference : withQueues) {
+            try {
+                declaredQueues.computeIfAbsent(conference.getId(), this::declare);
+            } catch (AmqpException e) {
+                // Left out of the registry, so the first enqueue declares it
+                log.warn("Could not declare waitlist queue for conference {}: {}", conference.getId(), e.getMessage());
+            }
+        }
+        log.info("Declared {} waitlist queues", declaredQueues.size());
+    }
+
+    /**
+     * Returns the conference's waitlist queue, declaring it and recording it on the
+     * conference if that has not happened yet.
+     */
+    public String queueFor(Conference conference) {
+        String queueId = declaredQueues.computeIfAbsent(conference.getId(), this::declare);
+        if (conference.getWaitlistQueueId() == null) {
+            conferenceRepository.assignWaitlistQueue(conference.getId(), queueId);
+            conference.setWaitlistQueueId(queueId);
+        }
+        return queueId;
+    }
+
+    private String declare(String conferenceId) {
+        String queueId = QUEUE_PREFIX + conferenceId;
+        // Declare queue with FIFO properties
+        Map<String, Object> args = new HashMap<>();
+        args.put("x-max-priority", 1);
+        amqpAdmin.declareQueue(new Queue(queueId, true, false, false, args));
+        log.info("Declared waitlist queue {}", queueId);
+        return queueId;
+    }
+}
@@ -0,0 +1,5 @@
+-- At most one non-cancelled booking per user and conference. Also serves the
+-- duplicate-booking lookup as a single index probe.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_bookings_active_user_conference
+ON bookings (user_id, conference_id)
+WHERE status <> 'CANCELLED';
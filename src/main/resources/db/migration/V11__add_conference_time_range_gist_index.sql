@@ -0,0 +1,3 @@
+-- Backs the time-overlap check in BookingValidator (tsrange && tsrange)
+CREATE INDEX IF NOT EXISTS idx_conferences_time_range
+ON conferences USING gist (tsrange(start_timestamp, end_timestamp, '[]'));
@@ -0,0 +1,6 @@
+-- Highest slot-journal sequence number whose delta has been applied to
+-- conferences.available_slots, per application node
+CREATE TABLE IF NOT EXISTS slot_journal_checkpoints (
+    node_id VARCHAR(255) PRIMARY KEY,
+    last_seq BIGINT NOT NULL
+);
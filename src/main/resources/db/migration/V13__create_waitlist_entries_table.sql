@@ -0,0 +1,20 @@
+-- Waitlist positions for booking.waitlist.engine=postgres. position comes from one
+-- global sequence, so within a conference it follows enqueue order.
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    booking_id VARCHAR(255) PRIMARY KEY REFERENCES bookings(id),
+    conference_id VARCHAR(255) NOT NULL REFERENCES conferences(id),
+    user_id VARCHAR(255) NOT NULL REFERENCES users(id),
+    position BIGSERIAL NOT NULL
+);
+
+-- Head of a conference's waitlist
+CREATE INDEX IF NOT EXISTS idx_waitlist_entries_conference_position
+ON waitlist_entries (conference_id, position);
+
+-- Removing a user from the waitlists of overlapping conferences
+CREATE INDEX IF NOT EXISTS idx_waitlist_entries_user_conference
+ON waitlist_entries (user_id, conference_id);
+
+-- Cancelling every waitlisted booking of a conference
+CREATE INDEX IF NOT EXISTS idx_bookings_conference_status
+ON bookings (conference_id, status);
@@ -0,0 +1,17 @@
+-- Waitlist ordering scores. A booking keeps its original waitlist time across
+-- expired confirmation windows; each expiry bumps waitlist_retries instead.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS waitlist_tier SMALLINT NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS waitlist_retries INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS waitlisted_at TIMESTAMP;
+
+UPDATE bookings SET waitlisted_at = booking_time
+WHERE waitlisted_at IS NULL AND status IN ('WAITLISTED', 'PROCESSING');
+
+ALTER TABLE waitlist_entries ADD COLUMN IF NOT EXISTS tier SMALLINT NOT NULL DEFAULT 0;
+ALTER TABLE waitlist_entries ADD COLUMN IF NOT EXISTS retries INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE waitlist_entries ADD COLUMN IF NOT EXISTS waitlisted_at TIMESTAMP NOT NULL DEFAULT now();
+
+-- Head of a conference's waitlist in score order
+DROP INDEX IF EXISTS idx_waitlist_entries_conference_position;
+CREATE INDEX IF NOT EXISTS idx_waitlist_entries_conference_score
+ON waitlist_entries (conference_id, tier, retries, waitlisted_at, position);
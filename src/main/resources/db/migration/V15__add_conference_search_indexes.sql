@@ -0,0 +1,23 @@
+-- Backs the database conference search (conference.search.backend=database)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Substring filters on name and location (ILIKE '%...%')
+CREATE INDEX IF NOT EXISTS idx_conferences_name_trgm
+ON conferences USING gin (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_conferences_location_trgm
+ON conferences USING gin (location gin_trgm_ops);
+
+-- Topics joined with a newline, which never occurs in a search topic, so a pattern
+-- matches the joined text exactly when it matches one of the topics.
+-- array_to_string is only STABLE, hence the IMMUTABLE wrapper for the index.
+CREATE OR REPLACE FUNCTION conference_topics_text(topics TEXT[]) RETURNS TEXT
+LANGUAGE sql IMMUTABLE PARALLEL SAFE
+AS $$ SELECT array_to_string(topics, E'\n') $$;
+
+CREATE INDEX IF NOT EXISTS idx_conferences_topics_trgm
+ON conferences USING gin (conference_topics_text(topics) gin_trgm_ops);
+
+-- Date filters, timeframe filters and the result order
+CREATE INDEX IF NOT EXISTS idx_conferences_start_timestamp
+ON conferences (start_timestamp);
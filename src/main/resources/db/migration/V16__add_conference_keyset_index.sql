@@ -0,0 +1,6 @@
+-- Keyset pagination on (start_timestamp, id); also serves everything the
+-- start_timestamp index from V15 did
+CREATE INDEX IF NOT EXISTS idx_conferences_start_timestamp_id
+ON conferences (start_timestamp, id);
+
+DROP INDEX IF EXISTS idx_conferences_start_timestamp;
@@ -0,0 +1,11 @@
+-- Set once the broker has confirmed a waitlisted booking's queue message (rabbitmq engine).
+-- Waitlisted bookings still without it are republished by the recovery sweep.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS waitlist_published BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Bookings already on a waitlist were published before the column existed
+UPDATE bookings SET waitlist_published = TRUE WHERE status = 'WAITLISTED';
+
+-- Waitlisted bookings still waiting for a confirmed message, oldest first
+CREATE INDEX IF NOT EXISTS idx_bookings_unpublished_waitlist
+ON bookings (booking_time)
+WHERE status = 'WAITLISTED' AND NOT waitlist_published;
@@ -1,16 +1,25 @@
 package com.example.conferencebooking.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
@@ -21,19 +30,23 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 import org.springframework.web.servlet.view.RedirectView;
 
+import com.example.conferencebooking.dto.ConferencePageDTO;
 import com.example.conferencebooking.dto.ConferenceRequestDTO;
 import com.example.conferencebooking.dto.ConferenceSearchDTO;
 import com.example.conferencebooking.entity.Conference;
@@ -59,6 +72,9 @@ class ConferenceControllerTest {
     @Mock
     private BookingService bookingService;
 
+    @Spy
+    private ObjectMapper exportMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
     @InjectMocks
     private ConferenceController conferenceController;
 
@@ -113,7 +129,8 @@ class ConferenceControllerTest {
 
     @Test
     void listConferences_WhenUserLoggedIn_ShouldShowConferencesWithBookingStatus() throws Exception {
-        when(conferenceService.getAllConferences()).thenReturn(Arrays.asList(testConference));
+        when(conferenceService.getConferencePage(isNull(), anyInt()))
+                .thenReturn(new ConferencePageDTO(Arrays.asList(testConference), null));
         when(bookingService.getUserBookings(testUser.getId())).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/conferences").session(session))
@@ -124,7 +141,8 @@ class ConferenceControllerTest {
 
     @Test
     void listConferences_WhenUserNotLoggedIn_ShouldShowConferences() throws Exception {
-        when(conferenceService.getAllConferences()).thenReturn(Arrays.asList(testConference));
+        when(conferenceService.getConferencePage(isNull(), anyInt()))
+                .thenReturn(new ConferencePageDTO(Arrays.asList(testConference), null));
 
         mockMvc.perform(get("/conferences"))
                 .andExpect(status().isOk())
@@ -211,6 +229,56 @@ class ConferenceControllerTest {
                 .andExpect(jsonPath("$[0].id").value(testConference.getId()));
     }
 
+    @Test
+    void listConferences_WhenCursorGiven_ShouldShowThatPage() throws Exception {
+        when(conferenceService.getConferencePage(eq("cursor-1"), anyInt()))
+                .thenReturn(new ConferencePageDTO(Arrays.asList(testConference), "cursor-2"));
+
+        mockMvc.perform(get("/conferences").param("cursor", "cursor-1"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("conferences/list"))
+                .andExpect(model().attribute("nextCursor", "cursor-2"))
+                .andExpect(model().attribute("firstPage", false));
+    }
+
+    @Test
+    void getAllConferences_WhenSizeGiven_ShouldReturnPage() throws Exception {
+        when(conferenceService.getConferencePage(null, 10))
+                .thenReturn(new ConferencePageDTO(Arrays.asList(testConference), "next"));
+
+        mockMvc.perform(get("/api/conferences").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conferences[0].id").value(testConference.getId()))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void exportConferences_ShouldStreamOneConferencePerLine() throws Exception {
+        Conference second = testConference.toBuilder().id("second").build();
+        doAnswer(invocation -> {
+            Consumer<Conference> consumer = invocation.getArgument(0);
+            consumer.accept(testConference);
+            consumer.accept(second);
+            return null;
+        }).when(conferenceService).exportConferences(any());
+
+        MvcResult result = mockMvc.perform(get("/api/conferences/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(testConference.getId(), objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals("second", objectMapper.readTree(lines[1]).get("id").asText());
+        // No root separator between rows, only the newline
+        assertTrue(lines[1].startsWith("{"));
+    }
+
     @Test
     void deleteConference_ShouldDeleteConference() throws Exception {
         doNothing().when(conferenceService).deleteConference(testConference.getId());
@@ -233,6 +301,34 @@ class ConferenceControllerTest {
                 .andExpect(jsonPath("$[0].id").value(testConference.getId()));
     }
 
+    @Test
+    void searchConferences_WhenCursorGiven_ShouldReturnNextPage() throws Exception {
+        ConferenceSearchDTO searchDTO = new ConferenceSearchDTO();
+        when(conferenceService.searchConferencePage(any(ConferenceSearchDTO.class), eq("cursor-1"), eq(5)))
+                .thenReturn(new ConferencePageDTO(Arrays.asList(testConference), null));
+
+        mockMvc.perform(post("/api/conferences/search")
+                .param("size", "5")
+                .param("cursor", "cursor-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(searchDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conferences[0].id").value(testConference.getId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void searchConferences_WhenCursorInvalid_ShouldReturnBadRequest() throws Exception {
+        when(conferenceService.searchConferencePage(any(ConferenceSearchDTO.class), eq("bad"), anyInt()))
+                .thenThrow(new ValidationException("Invalid page cursor"));
+
+        mockMvc.perform(post("/api/conferences/search")
+                .param("cursor", "bad")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ConferenceSearchDTO())))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getSuggestedConferences_WhenUserLoggedIn_ShouldReturnSuggestions() throws Exception {
         when(conferenceService.getSuggestedConferences(testUser.getId()))
@@ -0,0 +1,44 @@
+package com.example.conferencebooking.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExportTimeoutInterceptorTest {
+    private static final long DEFAULT_TIMEOUT = 30_000;
+
+    private final ExportTimeoutInterceptor interceptor = new ExportTimeoutInterceptor(Duration.ofMinutes(30));
+
+    @Test
+    void beforeConcurrentHandling_WhenExport_ShouldUseExportTimeout() throws Exception {
+        MockHttpServletRequest servletRequest = asyncRequest();
+        servletRequest.setAttribute(NdjsonResponses.EXPORT_ATTRIBUTE, Boolean.TRUE);
+
+        assertEquals(Duration.ofMinutes(30).toMillis(), startAsync(servletRequest));
+    }
+
+    @Test
+    void beforeConcurrentHandling_WhenNotExport_ShouldKeepDefaultTimeout() throws Exception {
+        assertEquals(DEFAULT_TIMEOUT, startAsync(asyncRequest()));
+    }
+
+    private long startAsync(MockHttpServletRequest servletRequest) throws Exception {
+        StandardServletAsyncWebRequest request =
+            new StandardServletAsyncWebRequest(servletRequest, new MockHttpServletResponse());
+        request.setTimeout(DEFAULT_TIMEOUT);
+        interceptor.beforeConcurrentHandling(request, () -> null);
+        request.startAsync();
+        return servletRequest.getAsyncContext().getTimeout();
+    }
+
+    private static MockHttpServletRequest asyncRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
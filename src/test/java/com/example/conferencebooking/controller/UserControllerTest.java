@@ -1,30 +1,39 @@
 package com.example.conferencebooking.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.example.conferencebooking.dto.UserRequestDTO;
@@ -45,6 +54,9 @@ class UserControllerTest {
     @Mock
     private UserMapper userMapper;
 
+    @Spy
+    private ObjectMapper exportMapper = new ObjectMapper();
+
     @InjectMocks
     private UserController userController;
 
@@ -146,6 +158,36 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[0].phoneNumber").value(testUserResponse.getPhoneNumber()));
     }
 
+    @Test
+    void exportUsers_ShouldStreamOneUserPerLine() throws Exception {
+        User other = User.builder().id("other").name("Other").email("other@example.com").build();
+        UserResponseDTO otherResponse = UserResponseDTO.builder().id("other").name("Other").build();
+        when(userMapper.toDto(testUser)).thenReturn(testUserResponse);
+        when(userMapper.toDto(other)).thenReturn(otherResponse);
+        doAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(0);
+            consumer.accept(testUser);
+            consumer.accept(other);
+            return null;
+        }).when(userService).exportUsers(any());
+
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(testUser.getId(), objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals("other", objectMapper.readTree(lines[1]).get("id").asText());
+        // No root separator between rows, only the newline
+        assertTrue(lines[1].startsWith("{"));
+    }
+
     @Test
     void deleteUser_ShouldDeleteUser() throws Exception {
         doNothing().when(userService).deleteUser(testUser.getId());
@@ -0,0 +1,96 @@
+package com.example.conferencebooking.message;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares the binary codec with the Jackson converter it replaced, over the same booking
+ * ids: time and heap allocation per message, for encoding and decoding. Not part of the
+ * regular build; run with
+ * <pre>mvn test -Dtest=BookingMessageCodecBenchmark -Dsurefire.excludedGroups=</pre>
+ */
+@Tag("benchmark")
+class BookingMessageCodecBenchmark {
+    private static final int MESSAGES = 10_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Jackson2JsonMessageConverter jackson = new Jackson2JsonMessageConverter();
+
+    @Test
+    void codec_ShouldBeFasterAndAllocateOnlyTheIdWhenDecoding() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        List<String> ids = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        List<BookingMessage> messages = ids.stream().map(BookingMessage::new).toList();
+        List<byte[]> binary = messages.stream().map(BookingMessageCodec::encode).toList();
+        List<Message> json = messages.stream().map(m -> jackson.toMessage(m, new MessageProperties())).toList();
+
+        Result codecEncode = measure(messages, message -> BookingMessageCodec.encode(message).length);
+        Result jacksonEncode = measure(messages,
+            message -> jackson.toMessage(message, new MessageProperties()).getBody().length);
+        Result codecDecode = measure(binary, body -> BookingMessageCodec.decodeBookingId(body).length());
+        Result jacksonDecode = measure(json,
+            message -> ((BookingMessage) jackson.fromMessage(message)).getBookingId().length());
+
+        System.out.printf("%-16s %10s %12s%n", "", "ns/msg", "bytes/msg");
+        System.out.printf("%-16s %10.1f %12.1f%n", "codec encode", codecEncode.nanos(), codecEncode.bytes());
+        System.out.printf("%-16s %10.1f %12.1f%n", "jackson encode", jacksonEncode.nanos(), jacksonEncode.bytes());
+        System.out.printf("%-16s %10.1f %12.1f%n", "codec decode", codecDecode.nanos(), codecDecode.bytes());
+        System.out.printf("%-16s %10.1f %12.1f%n", "jackson decode", jacksonDecode.nanos(), jacksonDecode.bytes());
+
+        // A 36-character id string: a String object and its 52-byte value array, padded
+        assertTrue(codecDecode.bytes() <= 80 + 8, "codec decode allocated " + codecDecode.bytes() + " bytes");
+        assertTrue(codecDecode.bytes() < jacksonDecode.bytes());
+        assertTrue(codecEncode.bytes() < jacksonEncode.bytes());
+        assertTrue(codecDecode.nanos() < jacksonDecode.nanos());
+        assertTrue(codecEncode.nanos() < jacksonEncode.nanos());
+    }
+
+    // Average time and allocation per message over the measured rounds
+    private <T> Result measure(List<T> inputs, ToIntFunction<T> operation) {
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += run(inputs, operation);
+        }
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            sink += run(inputs, operation);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+        // Keeps the JIT from discarding the work
+        assertNotEquals(0, sink);
+        double operations = (double) MEASURED_ROUNDS * inputs.size();
+        return new Result(elapsed / operations, allocated / operations);
+    }
+
+    private static <T> long run(List<T> inputs, ToIntFunction<T> operation) {
+        long sink = 0;
+        for (T input : inputs) {
+            sink += operation.applyAsInt(input);
+        }
+        return sink;
+    }
+
+    private record Result(double nanos, double bytes) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.conferencebooking.message;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingMessageCodecTest {
+
+    @Test
+    void encode_WhenDecoded_ShouldReturnSameBookingId() {
+        String bookingId = UUID.randomUUID().toString();
+
+        byte[] body = BookingMessageCodec.encode(new BookingMessage(bookingId));
+
+        assertEquals(BookingMessageCodec.VERSION, body[0]);
+        assertEquals(3 + bookingId.length(), body.length);
+        assertEquals(bookingId, BookingMessageCodec.decodeBookingId(body));
+        assertEquals(new BookingMessage(bookingId), BookingMessageCodec.decode(body));
+    }
+
+    @Test
+    void encode_WhenIdIsNonAscii_ShouldRoundTrip() {
+        String bookingId = "bøøking-ü";
+
+        byte[] body = BookingMessageCodec.encode(new BookingMessage(bookingId));
+
+        assertEquals(bookingId, BookingMessageCodec.decodeBookingId(body));
+    }
+
+    @Test
+    void decode_WhenLegacyJson_ShouldReturnBookingId() {
+        byte[] body = "{\"bookingId\":\"abc-123\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("abc-123", BookingMessageCodec.decodeBookingId(body));
+    }
+
+    @Test
+    void decode_WhenVersionUnknown_ShouldThrow() {
+        byte[] body = {2, 0, 1, 'x'};
+
+        assertThrows(IllegalArgumentException.class, () -> BookingMessageCodec.decodeBookingId(body));
+    }
+
+    @Test
+    void decode_WhenBodyTruncated_ShouldThrow() {
+        byte[] body = BookingMessageCodec.encode(new BookingMessage("abc-123"));
+        byte[] truncated = Arrays.copyOf(body, body.length - 1);
+
+        assertThrows(IllegalArgumentException.class, () -> BookingMessageCodec.decodeBookingId(truncated));
+    }
+
+    @Test
+    void converter_ShouldWriteBinaryAndReadLegacyJson() {
+        Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter();
+        BookingMessageConverter converter = new BookingMessageConverter(json);
+
+        Message binary = converter.toMessage(new BookingMessage("abc-123"), new MessageProperties());
+        assertEquals(BookingMessageCodec.CONTENT_TYPE, binary.getMessageProperties().getContentType());
+        assertEquals(new BookingMessage("abc-123"), converter.fromMessage(binary));
+
+        Message legacy = json.toMessage(new BookingMessage("def-456"), new MessageProperties());
+        assertEquals(new BookingMessage("def-456"), converter.fromMessage(legacy));
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.conferencebooking.repository.impl;
+
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CachingConferenceRepositoryTest {
+    // Rows as the database holds them; the mocked delegate reads fresh copies from here
+    private final Map<String, Conference> rows = new HashMap<>();
+    private ConferenceRepository delegate;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingConferenceRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        rows.put("c1", conference("c1", 10));
+        rows.put("c2", conference("c2", 20));
+        delegate = mock(ConferenceRepository.class);
+        when(delegate.findById(anyString())).thenAnswer(invocation ->
+            Optional.ofNullable(rows.get(invocation.<String>getArgument(0))).map(this::copy));
+        when(delegate.findAllByIds(anyCollection())).thenAnswer(invocation ->
+            invocation.<List<String>>getArgument(0).stream()
+                .filter(rows::containsKey)
+                .map(id -> copy(rows.get(id)))
+                .toList());
+        meterRegistry = new SimpleMeterRegistry();
+        repository = new CachingConferenceRepository(delegate, meterRegistry, 100, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void findById_WhenCached_ShouldNotReadDelegateAgain() {
+        assertEquals(10, repository.findById("c1").orElseThrow().getAvailableSlots());
+        assertEquals(10, repository.findById("c1").orElseThrow().getAvailableSlots());
+
+        verify(delegate, times(1)).findById("c1");
+    }
+
+    @Test
+    void findById_WhenMissing_ShouldReturnEmptyWithoutCaching() {
+        assertEquals(Optional.empty(), repository.findById("missing"));
+        rows.put("missing", conference("missing", 5));
+
+        assertEquals(5, repository.findById("missing").orElseThrow().getAvailableSlots());
+    }
+
+    @Test
+    void findById_ShouldReturnCopiesCallersCanMutate() {
+        Conference first = repository.findById("c1").orElseThrow();
+        first.setAvailableSlots(0);
+        first.getTopics().add("mutated");
+
+        Conference second = repository.findById("c1").orElseThrow();
+        assertEquals(10, second.getAvailableSlots());
+        assertEquals(List.of("java"), second.getTopics());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void findAllByIds_ShouldServeCachedEntriesAndLoadOnlyMissingOnes() {
+        repository.findById("c1");
+
+        List<Conference> found = repository.findAllByIds(List.of("c1", "c2"));
+        assertEquals(List.of("c1", "c2"), found.stream().map(Conference::getId).sorted().toList());
+        verify(delegate).findAllByIds(List.of("c2"));
+
+        found.forEach(conference -> conference.setAvailableSlots(0));
+        assertEquals(10, repository.findById("c1").orElseThrow().getAvailableSlots());
+        assertEquals(20, repository.findById("c2").orElseThrow().getAvailableSlots());
+    }
+
+    @Test
+    void save_ShouldEvictEntry() {
+        repository.findById("c1");
+        rows.put("c1", conference("c1", 9));
+
+        repository.save(conference("c1", 9));
+
+        assertEquals(9, repository.findById("c1").orElseThrow().getAvailableSlots());
+    }
+
+    @Test
+    void save_WhenVersionConflict_ShouldStillEvictEntry() {
+        repository.findById("c1");
+        rows.put("c1", conference("c1", 7));
+        when(delegate.save(any())).thenThrow(new OptimisticLockingFailureException("stale"));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> repository.save(conference("c1", 9)));
+
+        assertEquals(7, repository.findById("c1").orElseThrow().getAvailableSlots());
+    }
+
+    @Test
+    void deleteById_ShouldEvictEntry() {
+        repository.findById("c1");
+        rows.remove("c1");
+
+        repository.deleteById("c1");
+
+        assertEquals(Optional.empty(), repository.findById("c1"));
+    }
+
+    @Test
+    void reserveSeat_ShouldEvictEntry() {
+        assertEvictedBy("c1", () -> repository.reserveSeat("c1"));
+    }
+
+    @Test
+    void assignWaitlistQueue_ShouldEvictEntry() {
+        assertEvictedBy("c1", () -> repository.assignWaitlistQueue("c1", "conference.waitlist.c1"));
+    }
+
+    @Test
+    void adjustAvailableSlots_ShouldEvictEveryAdjustedEntry() {
+        repository.findById("c1");
+        repository.findById("c2");
+        rows.put("c1", conference("c1", 8));
+        rows.put("c2", conference("c2", 21));
+
+        repository.adjustAvailableSlots(Map.of("c1", -2, "c2", 1));
+
+        assertEquals(8, repository.findById("c1").orElseThrow().getAvailableSlots());
+        assertEquals(21, repository.findById("c2").orElseThrow().getAvailableSlots());
+    }
+
+    @Test
+    void write_WhenInTransaction_ShouldEvictAgainAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        repository.reserveSeat("c1");
+
+        // A concurrent reader caches the row before the write commits
+        repository.findById("c1");
+        rows.put("c1", conference("c1", 9));
+        assertEquals(10, repository.findById("c1").orElseThrow().getAvailableSlots());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(9, repository.findById("c1").orElseThrow().getAvailableSlots());
+    }
+
+    @Test
+    void findById_ShouldPublishCacheMetrics() {
+        repository.findById("c1");
+        repository.findById("c1");
+        repository.findById("c1");
+
+        assertEquals(2, meterRegistry.get("cache.gets")
+            .tag("cache", "conferences").tag("result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets")
+            .tag("cache", "conferences").tag("result", "miss").functionCounter().count());
+        assertNotNull(meterRegistry.get("cache.evictions").tag("cache", "conferences").functionCounter());
+    }
+
+    private void assertEvictedBy(String id, Runnable write) {
+        repository.findById(id);
+        Conference changed = conference(id, 3);
+        rows.put(id, changed);
+
+        write.run();
+
+        assertEquals(3, repository.findById(id).orElseThrow().getAvailableSlots());
+    }
+
+    private Conference copy(Conference conference) {
+        return conference.toBuilder().topics(new ArrayList<>(conference.getTopics())).build();
+    }
+
+    private static Conference conference(String id, int availableSlots) {
+        return Conference.builder()
+            .id(id)
+            .name(id)
+            .location("Berlin")
+            .totalSlots(20)
+            .availableSlots(availableSlots)
+            .topics(new ArrayList<>(List.of("java")))
+            .build();
+    }
+}
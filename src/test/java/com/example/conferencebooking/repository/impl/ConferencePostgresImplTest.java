@@ -0,0 +1,127 @@
+package com.example.conferencebooking.repository.impl;
+
+import com.example.conferencebooking.dto.ConferenceCursor;
+import com.example.conferencebooking.dto.ConferenceSearchDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConferencePostgresImplTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 12, 0);
+    private static final String SELECT = "SELECT * FROM conferences WHERE TRUE";
+
+    private RecordingJdbcTemplate jdbcTemplate;
+    private ConferencePostgresImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new RecordingJdbcTemplate();
+        repository = new ConferencePostgresImpl(jdbcTemplate);
+    }
+
+    @Test
+    void search_WhenNoFilters_ShouldOrderByStart() {
+        repository.search(search(null, null, null, null, null, "all"), NOW);
+
+        assertEquals(SELECT + " ORDER BY start_timestamp, id", jdbcTemplate.sql);
+        assertEquals(List.of(), jdbcTemplate.params);
+    }
+
+    @Test
+    void search_WhenTextFilters_ShouldUseContainsPatterns() {
+        repository.search(search("boot", "berlin", List.of("java", "cloud"), null, null, "all"), NOW);
+
+        assertEquals(SELECT
+            + " AND name ILIKE ?"
+            + " AND location ILIKE ?"
+            + " AND (conference_topics_text(topics) ILIKE ? OR conference_topics_text(topics) ILIKE ?)"
+            + " ORDER BY start_timestamp, id", jdbcTemplate.sql);
+        assertEquals(List.of("%boot%", "%berlin%", "%java%", "%cloud%"), jdbcTemplate.params);
+    }
+
+    @Test
+    void search_WhenTextHasLikeWildcards_ShouldEscapeThem() {
+        repository.search(search("100%_off\\", null, null, null, null, "all"), NOW);
+
+        assertEquals(List.of("%100\\%\\_off\\\\%"), jdbcTemplate.params);
+    }
+
+    @Test
+    void search_WhenDatesGiven_ShouldBoundStartByEndDate() {
+        LocalDateTime from = NOW.plusDays(1);
+        LocalDateTime to = NOW.plusDays(10);
+
+        repository.search(search(null, null, null, from, to, "all"), NOW);
+
+        assertEquals(SELECT
+            + " AND start_timestamp >= ?"
+            + " AND end_timestamp <= ? AND start_timestamp <= ?"
+            + " ORDER BY start_timestamp, id", jdbcTemplate.sql);
+        assertEquals(List.of(from, to, to), jdbcTemplate.params);
+    }
+
+    @Test
+    void search_WhenUpcoming_ShouldFilterStartAfterNow() {
+        repository.search(search("java", null, null, null, null, "upcoming"), NOW);
+
+        assertEquals(SELECT + " AND name ILIKE ? AND start_timestamp > ? ORDER BY start_timestamp, id",
+            jdbcTemplate.sql);
+        assertEquals(List.of("%java%", NOW), jdbcTemplate.params);
+    }
+
+    @Test
+    void search_WhenPast_ShouldOrderNewestStartFirst() {
+        repository.search(search(null, null, null, null, null, "past"), NOW);
+
+        assertEquals(SELECT + " AND end_timestamp < ? AND start_timestamp < ?"
+            + " ORDER BY start_timestamp DESC, id DESC", jdbcTemplate.sql);
+        assertEquals(List.of(NOW, NOW), jdbcTemplate.params);
+    }
+
+    @Test
+    void searchPage_WhenCursorGiven_ShouldSeekPastIt() {
+        ConferenceCursor cursor = new ConferenceCursor(NOW.plusDays(3), "c-7");
+
+        repository.searchPage(search(null, "bern", null, null, null, "upcoming"), NOW, cursor, 21);
+
+        assertEquals(SELECT + " AND location ILIKE ? AND start_timestamp > ?"
+            + " AND (start_timestamp, id) > (?, ?) ORDER BY start_timestamp, id LIMIT ?", jdbcTemplate.sql);
+        assertEquals(List.of("%bern%", NOW, NOW.plusDays(3), "c-7", 21), jdbcTemplate.params);
+    }
+
+    @Test
+    void searchPage_WhenPastWithCursor_ShouldSeekBackwards() {
+        ConferenceCursor cursor = new ConferenceCursor(NOW.minusDays(3), "c-2");
+
+        repository.searchPage(search(null, null, null, null, null, "past"), NOW, cursor, 11);
+
+        assertEquals(SELECT + " AND end_timestamp < ? AND start_timestamp < ?"
+            + " AND (start_timestamp, id) < (?, ?) ORDER BY start_timestamp DESC, id DESC LIMIT ?",
+            jdbcTemplate.sql);
+        assertEquals(List.of(NOW, NOW, NOW.minusDays(3), "c-2", 11), jdbcTemplate.params);
+    }
+
+    private static ConferenceSearchDTO search(String name, String location, List<String> topics,
+                                              LocalDateTime startDate, LocalDateTime endDate, String timeframe) {
+        return new ConferenceSearchDTO(null, name, location, topics, startDate, endDate, timeframe);
+    }
+
+    // Captures the statement instead of running it
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+        private String sql;
+        private List<Object> params;
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            this.sql = sql;
+            this.params = List.of(args);
+            return List.of();
+        }
+    }
+}
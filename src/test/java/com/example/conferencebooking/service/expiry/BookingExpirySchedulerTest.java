@@ -0,0 +1,128 @@
+package com.example.conferencebooking.service.expiry;
+
+import com.example.conferencebooking.entity.Booking;
+import com.example.conferencebooking.entity.BookingStatus;
+import com.example.conferencebooking.repository.BookingRepository;
+import com.example.conferencebooking.service.BookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class BookingExpirySchedulerTest {
+    private static final Duration RETRY_DELAY = Duration.ofMillis(300);
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final List<Long> callTimes = new CopyOnWriteArrayList<>();
+    private BookingRepository bookingRepository;
+    private BookingService bookingService;
+    private BookingExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        bookingService = mock(BookingService.class);
+        when(bookingRepository.findByStatus(BookingStatus.PROCESSING)).thenReturn(List.of());
+        doAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.<Collection<String>>getArgument(0)));
+            callTimes.add(System.nanoTime());
+            return null;
+        }).when(bookingService).requeueExpiredBookings(anyCollection());
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void schedule_WhenWindowCloses_ShouldRequeueOnlyDueBookings() {
+        scheduler = scheduler(500);
+        scheduler.start();
+
+        scheduler.schedule("due", expiringIn(Duration.ofMillis(100)));
+        scheduler.schedule("later", LocalDateTime.now());
+
+        verify(bookingService, timeout(2000)).requeueExpiredBookings(List.of("due"));
+        verify(bookingService, after(200).times(1)).requeueExpiredBookings(anyCollection());
+    }
+
+    @Test
+    void start_WhenManyBookingsDue_ShouldRequeueInBatchesOfBatchSize() {
+        scheduler = scheduler(2);
+        for (int i = 1; i <= 5; i++) {
+            // Increasing deadlines, all already past
+            scheduler.schedule("b" + i, expiringIn(Duration.ofSeconds(-10 + i)));
+        }
+
+        scheduler.start();
+
+        verify(bookingService, timeout(2000).times(3)).requeueExpiredBookings(anyCollection());
+        assertEquals(List.of(List.of("b1", "b2"), List.of("b3", "b4"), List.of("b5")), batches);
+    }
+
+    @Test
+    void start_ShouldScheduleProcessingBookingsFromDatabase() {
+        when(bookingRepository.findByStatus(BookingStatus.PROCESSING)).thenReturn(List.of(
+            processing("expired", expiringIn(Duration.ofMinutes(-5))),
+            processing("fresh", LocalDateTime.now())));
+        scheduler = scheduler(500);
+
+        scheduler.start();
+
+        verify(bookingService, timeout(2000)).requeueExpiredBookings(List.of("expired"));
+        verify(bookingService, after(200).times(1)).requeueExpiredBookings(anyCollection());
+    }
+
+    @Test
+    void run_WhenBatchFails_ShouldRetryItAfterRetryDelay() {
+        doAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.<Collection<String>>getArgument(0)));
+            callTimes.add(System.nanoTime());
+            throw new IllegalStateException("database down");
+        }).doAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.<Collection<String>>getArgument(0)));
+            callTimes.add(System.nanoTime());
+            return null;
+        }).when(bookingService).requeueExpiredBookings(anyCollection());
+        scheduler = scheduler(500);
+        scheduler.schedule("b1", expiringIn(Duration.ofSeconds(-2)));
+        scheduler.schedule("b2", expiringIn(Duration.ofSeconds(-1)));
+
+        scheduler.start();
+
+        verify(bookingService, timeout(2000).times(2)).requeueExpiredBookings(anyCollection());
+        assertEquals(List.of(List.of("b1", "b2"), List.of("b1", "b2")), batches);
+        long retriedAfter = callTimes.get(1) - callTimes.get(0);
+        assertTrue(retriedAfter >= RETRY_DELAY.toNanos() - Duration.ofMillis(20).toNanos(),
+            "retried after " + Duration.ofNanos(retriedAfter));
+    }
+
+    private BookingExpiryScheduler scheduler(int batchSize) {
+        return new BookingExpiryScheduler(bookingRepository, bookingService, batchSize, RETRY_DELAY);
+    }
+
+    // The processing start whose one-hour confirmation window closes after the given delay
+    private static LocalDateTime expiringIn(Duration delay) {
+        return LocalDateTime.now().minusHours(1).plus(delay);
+    }
+
+    private static Booking processing(String id, LocalDateTime since) {
+        return Booking.builder()
+            .id(id)
+            .userId("u-" + id)
+            .conferenceId("c1")
+            .bookingTime(since)
+            .status(BookingStatus.PROCESSING)
+            .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.conferencebooking.service.expiry;
+
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.repository.BookingRepository;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import com.example.conferencebooking.service.BookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ConferenceStartSchedulerTest {
+    private ConferenceRepository conferenceRepository;
+    private BookingRepository bookingRepository;
+    private BookingService bookingService;
+    private ConferenceStartScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        conferenceRepository = mock(ConferenceRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        bookingService = mock(BookingService.class);
+        scheduler = new ConferenceStartScheduler(conferenceRepository, bookingRepository, bookingService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void schedule_WhenStartReached_ShouldCloseWaitlist() {
+        scheduler.schedule(conference("c1", LocalDateTime.now().plusNanos(100_000_000)));
+
+        verify(bookingService, timeout(2000)).closeWaitlist("c1");
+    }
+
+    @Test
+    void schedule_WhenAlreadyStarted_ShouldNotScheduleAnything() throws InterruptedException {
+        scheduler.schedule(conference("c1", LocalDateTime.now().minusMinutes(1)));
+
+        Thread.sleep(200);
+        verify(bookingService, never()).closeWaitlist(anyString());
+    }
+
+    @Test
+    void schedule_WhenStartMovedLater_ShouldCloseOnlyAtNewStart() throws InterruptedException {
+        scheduler.schedule(conference("c1", LocalDateTime.now().plusNanos(100_000_000)));
+        scheduler.schedule(conference("c1", LocalDateTime.now().plusHours(1)));
+
+        Thread.sleep(300);
+        verify(bookingService, never()).closeWaitlist(anyString());
+    }
+
+    @Test
+    void schedule_WhenStartMovedEarlier_ShouldCloseOnceAtNewStart() throws InterruptedException {
+        scheduler.schedule(conference("c1", LocalDateTime.now().plusHours(1)));
+        scheduler.schedule(conference("c1", LocalDateTime.now().plusNanos(100_000_000)));
+
+        verify(bookingService, timeout(2000)).closeWaitlist("c1");
+        Thread.sleep(200);
+        verify(bookingService, times(1)).closeWaitlist("c1");
+    }
+
+    @Test
+    void schedule_AfterTimerFired_ShouldScheduleTheNewStart() throws InterruptedException {
+        scheduler.schedule(conference("c1", LocalDateTime.now().plusNanos(50_000_000)));
+        verify(bookingService, timeout(2000)).closeWaitlist("c1");
+
+        // The fired timer left no entry behind, so the new start is not mistaken for it
+        scheduler.schedule(conference("c1", LocalDateTime.now().plusNanos(50_000_000)));
+        verify(bookingService, timeout(2000).times(2)).closeWaitlist("c1");
+    }
+
+    @Test
+    void unschedule_ShouldCancelTimer() throws InterruptedException {
+        scheduler.schedule(conference("c1", LocalDateTime.now().plusNanos(100_000_000)));
+        scheduler.schedule(conference("c1", LocalDateTime.now().plusNanos(150_000_000)));
+        scheduler.unschedule("c1");
+
+        Thread.sleep(300);
+        verify(bookingService, never()).closeWaitlist(anyString());
+    }
+
+    @Test
+    void start_ShouldCloseMissedConferencesAndScheduleUpcomingOnes() {
+        when(conferenceRepository.findAll()).thenReturn(List.of(
+            conference("upcoming", LocalDateTime.now().plusNanos(200_000_000)),
+            conference("started", LocalDateTime.now().minusHours(1))));
+        when(bookingRepository.findStartedConferenceIdsWithWaitlist(any())).thenReturn(List.of("started"));
+
+        scheduler.start();
+
+        verify(bookingService, timeout(2000)).closeWaitlist("started");
+        verify(bookingService, timeout(2000)).closeWaitlist("upcoming");
+    }
+
+    private static Conference conference(String id, LocalDateTime start) {
+        return Conference.builder()
+            .id(id)
+            .name(id)
+            .startTimestamp(start)
+            .endTimestamp(start.plusHours(8))
+            .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.conferencebooking.service.index;
+
+import com.example.conferencebooking.entity.Conference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConferenceIntervalIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    private ConferenceIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ConferenceIntervalIndex(null);
+        index.put(conference("short", 10, 12));
+        index.put(conference("long", 0, 100));
+        index.put(conference("late", 50, 60));
+    }
+
+    @Test
+    void findOverlapping_WhenRangeTouchesBoundaries_ShouldIncludeThem() {
+        // Ends exactly at the query start, starts exactly at the query end
+        assertEquals(List.of("long", "short"), index.findOverlapping(at(12), at(20)));
+        assertEquals(List.of("long", "late"), index.findOverlapping(at(40), at(50)));
+        assertEquals(List.of("long", "late"), index.findOverlapping(at(60), at(60)));
+    }
+
+    @Test
+    void findOverlapping_WhenRangeJustMisses_ShouldExcludeConference() {
+        assertEquals(List.of("long"), index.findOverlapping(at(13), at(49)));
+        assertEquals(List.of(), index.findOverlapping(at(101), at(200)));
+        assertEquals(List.of(), index.findOverlapping(at(-10), at(-1)));
+    }
+
+    @Test
+    void findOverlapping_WhenLongConferenceStartsFarBefore_ShouldStillFindIt() {
+        assertEquals(List.of("long"), index.findOverlapping(at(99), at(99)));
+    }
+
+    @Test
+    void remove_ShouldDropConferenceAndItsEnd() {
+        index.remove("long");
+
+        assertEquals(List.of(), index.findOverlapping(at(61), at(99)));
+        assertEquals(List.of("short"), index.findOverlapping(at(0), at(10)));
+
+        index.remove("missing");
+        assertEquals(List.of("short", "late"), index.findOverlapping(at(0), at(100)));
+    }
+
+    @Test
+    void put_WhenConferenceMoved_ShouldReplaceOldRange() {
+        index.put(conference("short", 70, 80));
+
+        assertEquals(List.of("long"), index.findOverlapping(at(10), at(12)));
+        assertEquals(List.of("long", "short"), index.findOverlapping(at(75), at(75)));
+    }
+
+    @Test
+    void findOverlapping_ShouldMatchLinearScanAfterRandomUpdates() {
+        Random random = new Random(42);
+        List<int[]> ranges = new ArrayList<>();
+        index = new ConferenceIntervalIndex(null);
+        for (int i = 0; i < 500; i++) {
+            int start = random.nextInt(1000);
+            int[] range = {start, start + random.nextInt(50)};
+            ranges.add(range);
+            index.put(conference("c" + i, range[0], range[1]));
+        }
+        for (int i = 0; i < 500; i += 3) {
+            ranges.set(i, null);
+            index.remove("c" + i);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            int start = random.nextInt(1100) - 50;
+            int end = start + random.nextInt(30);
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < ranges.size(); i++) {
+                int[] range = ranges.get(i);
+                if (range != null && range[0] <= end && range[1] >= start) {
+                    expected.add("c" + i);
+                }
+            }
+            List<String> actual = index.findOverlapping(at(start), at(end));
+            assertEquals(expected.stream().sorted().toList(), actual.stream().sorted().toList());
+        }
+    }
+
+    private static LocalDateTime at(int hours) {
+        return BASE.plusHours(hours);
+    }
+
+    private static Conference conference(String id, int startHour, int endHour) {
+        return Conference.builder()
+            .id(id)
+            .name(id)
+            .location("Berlin")
+            .startTimestamp(at(startHour))
+            .endTimestamp(at(endHour))
+            .totalSlots(10)
+            .availableSlots(10)
+            .build();
+    }
+}
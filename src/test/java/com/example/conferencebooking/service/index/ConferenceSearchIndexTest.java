@@ -0,0 +1,190 @@
+package com.example.conferencebooking.service.index;
+
+import com.example.conferencebooking.dto.ConferenceCursor;
+import com.example.conferencebooking.dto.ConferenceSearchDTO;
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConferenceSearchIndexTest {
+    private ConferenceSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ConferenceSearchIndex(null);
+        index.put(conference("1", "Spring Boot Summit", "Berlin", List.of("Java", "Cloud"), 10));
+        index.put(conference("2", "JavaScript Days", "Bern", List.of("Frontend"), 20));
+        index.put(conference("3", "Kotlin Conf", "Amsterdam", List.of("JVM", "Mobile"), -10));
+    }
+
+    @Test
+    void search_WhenNameIsLongSubstring_ShouldMatchCaseInsensitively() {
+        assertEquals(Set.of("1"), ids(search("BOOT SUM", null, null, "all")));
+    }
+
+    @Test
+    void search_WhenNameIsShortSubstring_ShouldUseSingleGram() {
+        assertEquals(Set.of("2"), ids(search("ys", null, null, "all")));
+        assertEquals(Set.of("1", "2", "3"), ids(search("", null, null, "all")));
+    }
+
+    @Test
+    void search_WhenTrigramsMatchButSubstringDoesNot_ShouldNotMatch() {
+        // "summ" and "boot" exist, but not "summit boot"
+        assertEquals(Set.of(), ids(search("summit boot", null, null, "all")));
+    }
+
+    @Test
+    void search_WhenTopicsGiven_ShouldMatchAnyTopic() {
+        assertEquals(Set.of("1", "3"), ids(search(null, null, List.of("cloud", "mob"), "all")));
+        assertEquals(Set.of("1", "2"), ids(search(null, "ber", null, "all")));
+        assertEquals(Set.of("2"), ids(search(null, "ber", List.of("end"), "all")));
+    }
+
+    @Test
+    void search_WhenTimeframeGiven_ShouldFilterByNow() {
+        assertEquals(Set.of("1", "2"), ids(search(null, null, null, "upcoming")));
+        assertEquals(Set.of("3"), ids(search(null, null, null, "past")));
+    }
+
+    @Test
+    void search_WhenOnlyDatesGiven_ShouldMatchConferencesWithinThem() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(Set.of("1"), ids(searchDates(now.plusDays(5), now.plusDays(15), "all")));
+        assertEquals(Set.of("1", "2"), ids(searchDates(now.minusDays(30), null, "upcoming")));
+        assertEquals(Set.of("3"), ids(searchDates(null, now.plusDays(30), "past")));
+        assertEquals(Set.of(), ids(searchDates(now.plusDays(15), now.plusDays(5), "all")));
+        // Starts inside the range but ends after it
+        assertEquals(Set.of(), ids(searchDates(now.plusDays(5), now.plusDays(11), "all")));
+    }
+
+    @Test
+    void search_WhenConferenceMoved_ShouldFindItAtItsNewDates() {
+        index.put(conference("3", "Kotlin Conf", "Amsterdam", List.of("JVM", "Mobile"), 40));
+
+        assertEquals(Set.of(), ids(search(null, null, null, "past")));
+        assertEquals(Set.of("3"), ids(searchDates(LocalDateTime.now().plusDays(35), null, "upcoming")));
+    }
+
+    @Test
+    void searchPage_ShouldWalkInStartOrderFromTheCursor() {
+        ConferenceSearchIndex paged = pagedIndex(
+            conference("a", "Java Day", "Berlin", List.of("Java"), 1),
+            conference("b", "Cloud Day", "Berlin", List.of("Cloud"), 2),
+            conference("c", "Java Night", "Bern", List.of("Java"), 3),
+            conference("d", "Java Week", "Berlin", List.of("Java"), 4),
+            conference("e", "Old Java", "Berlin", List.of("Java"), -3));
+        ConferenceSearchDTO javaUpcoming = new ConferenceSearchDTO(null, "java", null, null, null, null, "upcoming");
+
+        List<Conference> first = paged.searchPage(javaUpcoming, null, 2);
+        assertEquals(List.of("a", "c"), first.stream().map(Conference::getId).toList());
+
+        List<Conference> second = paged.searchPage(javaUpcoming, ConferenceCursor.of(first.get(1)), 2);
+        assertEquals(List.of("d"), second.stream().map(Conference::getId).toList());
+    }
+
+    @Test
+    void searchPage_WhenPast_ShouldWalkNewestFirst() {
+        ConferenceSearchIndex paged = pagedIndex(
+            conference("a", "Java Day", "Berlin", List.of("Java"), -9),
+            conference("b", "Java Night", "Berlin", List.of("Java"), -6),
+            conference("c", "Java Week", "Berlin", List.of("Java"), -3),
+            conference("d", "Java Future", "Berlin", List.of("Java"), 5));
+        ConferenceSearchDTO past = new ConferenceSearchDTO(null, null, "berlin", null, null, null, "past");
+
+        List<Conference> first = paged.searchPage(past, null, 2);
+        assertEquals(List.of("c", "b"), first.stream().map(Conference::getId).toList());
+
+        List<Conference> second = paged.searchPage(past, ConferenceCursor.of(first.get(1)), 2);
+        assertEquals(List.of("a"), second.stream().map(Conference::getId).toList());
+    }
+
+    @Test
+    void searchPage_WhenCursorBeforeStartDate_ShouldStartAtStartDate() {
+        ConferenceSearchIndex paged = pagedIndex(
+            conference("a", "Java Day", "Berlin", List.of("Java"), 1),
+            conference("b", "Java Night", "Berlin", List.of("Java"), 10));
+        LocalDateTime now = LocalDateTime.now();
+        ConferenceSearchDTO fromDay5 = new ConferenceSearchDTO(null, null, null, null, now.plusDays(5), null, "all");
+
+        List<Conference> page = paged.searchPage(fromDay5, new ConferenceCursor(now.minusDays(1), "x"), 10);
+        assertEquals(List.of("b"), page.stream().map(Conference::getId).toList());
+    }
+
+    @Test
+    void put_WhenConferenceRenamed_ShouldDropOldTerms() {
+        index.put(conference("1", "Micronaut Meetup", "Berlin", List.of("Java"), 10));
+
+        assertEquals(Set.of(), ids(search("spring", null, null, "all")));
+        assertEquals(Set.of("1"), ids(search("naut", null, null, "all")));
+    }
+
+    @Test
+    void remove_ShouldDropConferenceFromResults() {
+        index.remove("2");
+
+        assertEquals(Set.of("1"), ids(search(null, "ber", null, "all")));
+    }
+
+    private static ConferenceSearchIndex pagedIndex(Conference... conferences) {
+        Map<String, Conference> byId = new HashMap<>();
+        for (Conference conference : conferences) {
+            byId.put(conference.getId(), conference);
+        }
+        ConferenceRepository repository = mock(ConferenceRepository.class);
+        when(repository.findAllByIds(anyCollection())).thenAnswer(invocation -> {
+            // The database returns rows in no particular order
+            Collection<String> ids = invocation.getArgument(0);
+            List<Conference> rows = new ArrayList<>(ids.stream().map(byId::get).toList());
+            Collections.reverse(rows);
+            return rows;
+        });
+
+        ConferenceSearchIndex paged = new ConferenceSearchIndex(repository);
+        byId.values().forEach(paged::put);
+        return paged;
+    }
+
+    private List<String> search(String name, String location, List<String> topics, String timeframe) {
+        return index.findIds(new ConferenceSearchDTO(null, name, location, topics, null, null, timeframe));
+    }
+
+    private List<String> searchDates(LocalDateTime startDate, LocalDateTime endDate, String timeframe) {
+        return index.findIds(new ConferenceSearchDTO(null, null, null, null, startDate, endDate, timeframe));
+    }
+
+    private static Set<String> ids(List<String> ids) {
+        return new HashSet<>(ids);
+    }
+
+    private static Conference conference(String id, String name, String location, List<String> topics, int startInDays) {
+        LocalDateTime start = LocalDateTime.now().plusDays(startInDays);
+        return Conference.builder()
+            .id(id)
+            .name(name)
+            .location(location)
+            .topics(topics)
+            .startTimestamp(start)
+            .endTimestamp(start.plusDays(2))
+            .totalSlots(10)
+            .availableSlots(10)
+            .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.conferencebooking.service.lock;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+
+class ConferenceLockManagerTest {
+    private static final int STRIPES = 4;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConferenceLockManager lockManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockManager = new ConferenceLockManager(meterRegistry, STRIPES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void withLock_WhenNoTransaction_ShouldReleaseRightAfterAction() throws Exception {
+        assertEquals("done", lockManager.withLock("c1", () -> "done"));
+
+        lockFromAnotherThread("c1").get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void withLock_WhenActionThrows_ShouldRelease() throws Exception {
+        assertThrows(IllegalStateException.class, () -> lockManager.withLock("c1", () -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        lockFromAnotherThread("c1").get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void withLock_WhenInTransaction_ShouldHoldStripeUntilCompletion() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        lockManager.withLock("c1", () -> { });
+
+        CompletableFuture<Void> waiting = lockFromAnotherThread("c1");
+        assertThrows(TimeoutException.class, () -> waiting.get(200, TimeUnit.MILLISECONDS));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        waiting.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void withLock_WhenTransactionRollsBack_ShouldReleaseStripe() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        lockManager.withLock("c1", () -> { });
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        lockFromAnotherThread("c1").get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void withLock_WhenRegisteringSynchronizationFails_ShouldReleaseStripe() throws Exception {
+        try (MockedStatic<TransactionSynchronizationManager> manager =
+                 mockStatic(TransactionSynchronizationManager.class, CALLS_REAL_METHODS)) {
+            manager.when(TransactionSynchronizationManager::isSynchronizationActive).thenReturn(true);
+            manager.when(() -> TransactionSynchronizationManager.registerSynchronization(any()))
+                .thenThrow(new IllegalStateException("no synchronization"));
+
+            assertThrows(IllegalStateException.class, () -> lockManager.withLock("c1", () -> "never"));
+        }
+
+        lockFromAnotherThread("c1").get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void withLock_ShouldRecordWaitOnTheConferencesStripe() {
+        lockManager.withLock("c1", () -> { });
+        lockManager.withLock("c1", () -> { });
+
+        List<Timer> timers = List.copyOf(meterRegistry.get("booking.conference.lock.wait").timers());
+        assertEquals(STRIPES, timers.size());
+        // Both waits land on the same stripe's timer
+        assertEquals(List.of(0L, 0L, 0L, 2L), timers.stream().map(Timer::count).sorted().toList());
+    }
+
+    private CompletableFuture<Void> lockFromAnotherThread(String conferenceId) {
+        return CompletableFuture.runAsync(() -> lockManager.withLock(conferenceId, () -> { }));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.conferencebooking.service.slot;
+
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SlotCounterCacheTest {
+    @TempDir
+    Path journalDir;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<Map<String, Integer>> flushed = new ArrayList<>();
+    private final CheckpointTable checkpoints = new CheckpointTable();
+    private final List<SlotCounterCache> started = new ArrayList<>();
+    private ConferenceRepository conferenceRepository;
+
+    @BeforeEach
+    void setUp() {
+        conferenceRepository = mock(ConferenceRepository.class);
+        when(conferenceRepository.findById(anyString())).thenAnswer(invocation -> {
+            String id = invocation.getArgument(0);
+            return Optional.ofNullable(slots.get(id))
+                .map(available -> Conference.builder().id(id).availableSlots(available).build());
+        });
+        doAnswer(invocation -> {
+            Map<String, Integer> deltas = invocation.getArgument(0);
+            flushed.add(Map.copyOf(deltas));
+            deltas.forEach((id, delta) -> slots.merge(id, delta, Integer::sum));
+            return null;
+        }).when(conferenceRepository).adjustAvailableSlots(anyMap());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (SlotCounterCache cache : started) {
+            cache.stop();
+        }
+    }
+
+    @Test
+    void start_WhenCrashedBeforeAnyCheckpoint_ShouldReplayWholeJournal() throws IOException {
+        slots.put("c1", 10);
+        slots.put("c2", 5);
+        writeSegment(1, "1,c1,-1\n2,c1,-2\n3,c2,-1\n4,c1,1\n");
+
+        SlotCounterCache cache = start();
+
+        assertEquals(List.of(Map.of("c1", -2, "c2", -1)), flushed);
+        assertEquals(4L, checkpoints.lastSeq);
+        assertEquals(8, cache.available("c1"));
+        assertEquals(4, cache.available("c2"));
+        assertEquals(List.of("slot-journal-00000000000000000005.log"), segments());
+    }
+
+    @Test
+    void start_WhenCheckpointCoversPartOfJournal_ShouldReplayOnlyTheTail() throws IOException {
+        // Crashed after the flush of seq 1-3 committed but before its segment was deleted
+        slots.put("c1", 8);
+        slots.put("c2", 3);
+        checkpoints.lastSeq = 3L;
+        writeSegment(1, "1,c1,-1\n2,c1,-1\n3,c2,-2\n");
+        writeSegment(4, "4,c1,-3\n5,c2,1\n");
+
+        SlotCounterCache cache = start();
+
+        assertEquals(List.of(Map.of("c1", -3, "c2", 1)), flushed);
+        assertEquals(5L, checkpoints.lastSeq);
+        assertEquals(5, cache.available("c1"));
+        assertEquals(4, cache.available("c2"));
+    }
+
+    @Test
+    void start_WhenLastRecordIsTorn_ShouldIgnoreIt() throws IOException {
+        // "2,c1,-1" parses, but without its newline it may be the prefix of "2,c1,-12"
+        slots.put("c1", 20);
+        writeSegment(1, "1,c1,-2\n2,c1,-1");
+
+        SlotCounterCache cache = start();
+
+        assertEquals(List.of(Map.of("c1", -2)), flushed);
+        assertEquals(1L, checkpoints.lastSeq);
+        assertEquals(18, cache.available("c1"));
+    }
+
+    @Test
+    void stop_AfterRecovery_ShouldContinueSequenceAndNeverFlushReplayedDeltasAgain() throws IOException {
+        slots.put("c1", 10);
+        writeSegment(1, "1,c1,-1\n2,c1,-1\n");
+
+        SlotCounterCache cache = start();
+        assertEquals(Optional.of(7), cache.tryAcquire("c1"));
+        stopped(cache);
+
+        // The new record continues at seq 3 and only its own delta is flushed
+        assertEquals(List.of(Map.of("c1", -2), Map.of("c1", -1)), flushed);
+        assertEquals(3L, checkpoints.lastSeq);
+        assertEquals(7, slots.get("c1"));
+
+        SlotCounterCache restarted = start();
+        assertEquals(2, flushed.size());
+        assertEquals(3L, checkpoints.lastSeq);
+        assertEquals(7, restarted.available("c1"));
+    }
+
+    @Test
+    void tryAcquire_WhenNotEnoughSeats_ShouldTakeNone() throws IOException {
+        slots.put("c1", 2);
+
+        SlotCounterCache cache = start();
+
+        assertEquals(Optional.empty(), cache.tryAcquire("c1", 3));
+        assertEquals(2, cache.acquireUpTo("c1", 5));
+        assertEquals(0, cache.available("c1"));
+        cache.release("c1", 1);
+        assertEquals(1, cache.available("c1"));
+    }
+
+    private SlotCounterCache start() throws IOException {
+        SlotCounterCache cache = new SlotCounterCache(conferenceRepository, checkpoints,
+            mock(PlatformTransactionManager.class), true, journalDir.toString(), Duration.ofHours(1), "node-1");
+        cache.start();
+        started.add(cache);
+        return cache;
+    }
+
+    private void stopped(SlotCounterCache cache) throws IOException {
+        started.remove(cache);
+        cache.stop();
+    }
+
+    private void writeSegment(long firstSeq, String records) throws IOException {
+        Path segment = journalDir.resolve("slot-journal-" + String.format("%020d", firstSeq) + ".log");
+        Files.write(segment, records.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> segments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    // Stands in for the slot_journal_checkpoints table of a single node
+    private static class CheckpointTable extends JdbcTemplate {
+        private Long lastSeq;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            return lastSeq == null ? List.of() : List.of((T) lastSeq);
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            lastSeq = (Long) args[1];
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.conferencebooking.service.suggestion;
+
+import com.example.conferencebooking.entity.Booking;
+import com.example.conferencebooking.entity.Conference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopicAffinityIndexTest {
+    private TopicAffinityIndex index;
+    private Conference javaBasics;
+    private Conference javaCloud;
+    private Conference design;
+
+    @BeforeEach
+    void setUp() {
+        index = new TopicAffinityIndex(null, null);
+        javaBasics = conference("java-basics", List.of("Java"), 30);
+        javaCloud = conference("java-cloud", List.of("Java", "Cloud", "Kubernetes", "DevOps"), 20);
+        design = conference("design", List.of("UX"), 10);
+        index.put(javaBasics);
+        index.put(javaCloud);
+        index.put(design);
+    }
+
+    @Test
+    void suggest_WhenNoProfile_ShouldReturnSoonestUpcoming() {
+        assertEquals(List.of("design", "java-cloud", "java-basics"), index.suggest("user", 10, LocalDateTime.now()));
+    }
+
+    @Test
+    void suggest_WhenProfileMatches_ShouldRankByDotProduct() {
+        book("b1", conference("past-java", List.of("java"), -5));
+
+        // A single-topic Java conference is a closer match than one where Java is one of four topics
+        assertEquals(List.of("java-basics", "java-cloud", "design"), index.suggest("user", 10, LocalDateTime.now()));
+    }
+
+    @Test
+    void suggest_WhenLimitReached_ShouldKeepOnlyBest() {
+        book("b1", conference("past-cloud", List.of("Cloud"), -5));
+
+        assertEquals(List.of("java-cloud"), index.suggest("user", 1, LocalDateTime.now()));
+    }
+
+    @Test
+    void recordCancellation_ShouldUndoBooking() {
+        book("b1", conference("past-ux", List.of("ux"), -5));
+        assertEquals("design", index.suggest("user", 1, LocalDateTime.now()).get(0));
+
+        index.recordCancellation("b1");
+
+        assertEquals(List.of("design", "java-cloud", "java-basics"), index.suggest("user", 10, LocalDateTime.now()));
+    }
+
+    @Test
+    void recordCancellation_WhenTopicsEditedSinceBooking_ShouldRemoveWhatBookingAdded() {
+        book("b1", conference("past-ux", List.of("ux"), -5));
+        book("b2", conference("past-java", List.of("Java"), -5));
+        // The first conference's topics change after it was booked
+        index.put(conference("past-ux", List.of("Java"), -5));
+
+        index.recordCancellation("b1");
+
+        assertEquals(List.of("java-basics", "java-cloud", "design"), index.suggest("user", 10, LocalDateTime.now()));
+    }
+
+    @Test
+    void recordCancellation_WhenRepeated_ShouldNotDriftBelowZero() {
+        book("b1", conference("past-java", List.of("Java"), -5));
+        index.recordCancellation("b1");
+        index.recordCancellation("b1");
+        index.recordCancellation("unknown");
+
+        book("b2", conference("past-ux", List.of("ux"), -5));
+
+        assertEquals(List.of("design", "java-cloud", "java-basics"), index.suggest("user", 10, LocalDateTime.now()));
+    }
+
+    @Test
+    void recordCancellations_ShouldUndoWaitlistCancellations() {
+        book("b1", conference("past-java", List.of("Java"), -5));
+        book("b2", conference("past-ux", List.of("ux"), -5));
+
+        index.recordCancellations(List.of("b1", "b2"));
+
+        assertEquals(List.of("design", "java-cloud", "java-basics"), index.suggest("user", 10, LocalDateTime.now()));
+    }
+
+    @Test
+    void suggest_WhenConferenceStarted_ShouldDropIt() {
+        book("b1", conference("past-java", List.of("Java"), -5));
+
+        List<String> later = index.suggest("user", 10, LocalDateTime.now().plusDays(25));
+
+        assertEquals(List.of("java-basics"), later);
+    }
+
+    @Test
+    void remove_ShouldDropConferenceFromSuggestions() {
+        index.remove("design");
+
+        assertFalse(index.suggest("user", 10, LocalDateTime.now()).contains("design"));
+    }
+
+    private void book(String bookingId, Conference conference) {
+        Booking booking = Booking.builder()
+            .id(bookingId)
+            .userId("user")
+            .conferenceId(conference.getId())
+            .build();
+        index.recordBooking(booking, conference);
+    }
+
+    private static Conference conference(String id, List<String> topics, int startInDays) {
+        LocalDateTime start = LocalDateTime.now().plusDays(startInDays);
+        return Conference.builder()
+            .id(id)
+            .name(id)
+            .location("Online")
+            .topics(topics)
+            .startTimestamp(start)
+            .endTimestamp(start.plusDays(1))
+            .totalSlots(10)
+            .availableSlots(10)
+            .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.conferencebooking.service.waitlist;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedWaitlistTest {
+    private static final AtomicLong SEEDS = new AtomicLong(20240601L);
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 6, 1, 9, 0);
+
+    @Test
+    void pollFirst_WhenSameTierAndRetries_ShouldServeInWaitlistOrder() {
+        OrderedWaitlist waitlist = new OrderedWaitlist();
+        waitlist.add(entry("c", 0, 0, 3));
+        waitlist.add(entry("a", 0, 0, 1));
+        waitlist.add(entry("b", 0, 0, 2));
+
+        assertEquals(List.of("a", "b", "c"), ids(waitlist.pollFirst(10)));
+        assertTrue(waitlist.isEmpty());
+    }
+
+    @Test
+    void pollFirst_ShouldOrderByTierThenRetriesThenTime() {
+        OrderedWaitlist waitlist = new OrderedWaitlist();
+        waitlist.add(entry("late-tier0", 0, 0, 50));
+        waitlist.add(entry("early-tier1", 1, 0, 1));
+        waitlist.add(entry("early-retried", 0, 2, 2));
+        waitlist.add(entry("early-tier0", 0, 0, 10));
+
+        assertEquals(List.of("early-tier0", "late-tier0", "early-retried", "early-tier1"),
+            ids(waitlist.pollFirst(4)));
+    }
+
+    @Test
+    void add_WhenBookingAlreadyWaiting_ShouldKeepOneEntry() {
+        OrderedWaitlist waitlist = new OrderedWaitlist();
+        assertTrue(waitlist.add(entry("a", 0, 0, 1)));
+        assertFalse(waitlist.add(entry("a", 0, 0, 1)));
+        assertTrue(waitlist.add(entry("a", 0, 1, 1)));
+
+        assertEquals(1, waitlist.size());
+        assertEquals(1, waitlist.pollFirst(1).get(0).retries());
+    }
+
+    // Random interleavings of add, remove and poll: every poll must return exactly the
+    // smallest remaining entries of a reference list, so removals never reorder the rest
+    @RepeatedTest(50)
+    void operations_WhenInterleavedRandomly_ShouldMatchSortedReference() {
+        Random random = new Random(SEEDS.getAndIncrement());
+        OrderedWaitlist waitlist = new OrderedWaitlist();
+        List<WaitlistEntry> reference = new ArrayList<>();
+        Set<String> removed = new HashSet<>();
+        int nextId = 0;
+
+        for (int step = 0; step < 500; step++) {
+            int op = random.nextInt(10);
+            if (op < 5 || reference.isEmpty()) {
+                // Few distinct scores so ties on tier, retries and time are common
+                WaitlistEntry entry = entry("b" + nextId++, random.nextInt(2), random.nextInt(2), random.nextInt(20));
+                assertTrue(waitlist.add(entry));
+                reference.add(entry);
+            } else if (op < 8) {
+                WaitlistEntry victim = reference.remove(random.nextInt(reference.size()));
+                assertTrue(waitlist.remove(victim.bookingId()));
+                assertFalse(waitlist.remove(victim.bookingId()));
+                removed.add(victim.bookingId());
+            } else {
+                int limit = 1 + random.nextInt(5);
+                reference.sort(Comparator.naturalOrder());
+                List<WaitlistEntry> expected = new ArrayList<>(reference.subList(0, Math.min(limit, reference.size())));
+                reference.removeAll(expected);
+
+                List<WaitlistEntry> polled = waitlist.pollFirst(limit);
+                assertEquals(expected, polled);
+                polled.forEach(entry -> assertFalse(removed.contains(entry.bookingId())));
+            }
+            assertEquals(reference.size(), waitlist.size());
+        }
+
+        Collections.sort(reference);
+        assertEquals(reference, waitlist.pollFirst(Integer.MAX_VALUE));
+    }
+
+    // Entries with equal tier and retries come out in the order they joined, no matter
+    // which other entries were removed in between
+    @RepeatedTest(20)
+    void pollFirst_WhenEntriesRemoved_ShouldKeepFifoAmongTheRest() {
+        Random random = new Random(SEEDS.getAndIncrement());
+        OrderedWaitlist waitlist = new OrderedWaitlist();
+        List<String> joinOrder = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String id = "b" + i;
+            waitlist.add(entry(id, 0, 0, i));
+            joinOrder.add(id);
+        }
+
+        List<String> survivors = new ArrayList<>(joinOrder);
+        for (String id : joinOrder) {
+            if (random.nextInt(3) == 0) {
+                waitlist.remove(id);
+                survivors.remove(id);
+            }
+        }
+
+        assertEquals(survivors, ids(waitlist.pollFirst(Integer.MAX_VALUE)));
+    }
+
+    private static WaitlistEntry entry(String bookingId, int tier, int retries, int minute) {
+        return new WaitlistEntry(bookingId, tier, retries, BASE.plusMinutes(minute));
+    }
+
+    private static List<String> ids(List<WaitlistEntry> entries) {
+        return entries.stream().map(WaitlistEntry::bookingId).toList();
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.conferencebooking.service.waitlist;
+
+import com.example.conferencebooking.entity.Booking;
+import com.example.conferencebooking.entity.BookingStatus;
+import com.example.conferencebooking.entity.Conference;
+import com.example.conferencebooking.message.BookingMessage;
+import com.example.conferencebooking.message.BookingMessageCodec;
+import com.example.conferencebooking.repository.BookingRepository;
+import com.example.conferencebooking.repository.ConferenceRepository;
+import com.example.conferencebooking.service.idempotency.IdempotencyStore;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RabbitWaitlistEngineTest {
+    private static final String QUEUE = "conference.waitlist.c1";
+    private static final LocalDateTime BOOKED_AT = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    private final Conference conference = Conference.builder().id("c1").waitlistQueueId(QUEUE).build();
+    private BookingRepository bookingRepository;
+    private ConferenceRepository conferenceRepository;
+    private WaitlistPublisher waitlistPublisher;
+    private Channel channel;
+    private RabbitWaitlistEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        conferenceRepository = mock(ConferenceRepository.class);
+        waitlistPublisher = mock(WaitlistPublisher.class);
+        channel = mock(Channel.class);
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        Connection connection = mock(Connection.class);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createChannel(false)).thenReturn(channel);
+        IdempotencyStore idempotencyStore = mock(IdempotencyStore.class);
+        WaitlistQueueRegistry waitlistQueueRegistry = mock(WaitlistQueueRegistry.class);
+        when(idempotencyStore.markIfAbsent(any())).thenReturn(true);
+        when(waitlistQueueRegistry.queueFor(any())).thenReturn(QUEUE);
+        when(conferenceRepository.findAllByIds(anyCollection())).thenReturn(List.of(conference));
+        when(waitlistPublisher.publish(eq(QUEUE), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        engine = new RabbitWaitlistEngine(rabbitTemplate, mock(AmqpAdmin.class), bookingRepository,
+            conferenceRepository, idempotencyStore, waitlistPublisher, waitlistQueueRegistry,
+            Duration.ofMillis(50), Duration.ofMinutes(1), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void enqueue_WhenConfirmed_ShouldMarkBookingPublishedOnNextSweep() {
+        Booking booking = waitlisted("b1");
+
+        engine.enqueue(booking, conference);
+        engine.recover();
+
+        verify(bookingRepository).markWaitlistPublished(List.of(booking));
+    }
+
+    @Test
+    void enqueue_WhenPublisherRejectsMessage_ShouldRetryUntilConfirmed() {
+        Booking booking = waitlisted("b1");
+        when(waitlistPublisher.publish(eq(QUEUE), any(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("backlog full")))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("not confirmed")))
+            .thenReturn(CompletableFuture.completedFuture(null));
+
+        engine.enqueue(booking, conference);
+
+        verify(waitlistPublisher, timeout(2000).times(3))
+            .publish(eq(QUEUE), eq(new BookingMessage("b1")), any(MessagePostProcessor.class));
+        engine.recover();
+        verify(bookingRepository).markWaitlistPublished(List.of(booking));
+    }
+
+    @Test
+    void recover_WhenWaitlistedBookingHasNoConfirmedMessage_ShouldRepublishIt() {
+        // Committed as WAITLISTED, but the app stopped before the broker confirmed its message
+        Booking lost = waitlisted("b1");
+        when(bookingRepository.findUnpublishedWaitlistedBookings(any(), anyInt())).thenReturn(List.of(lost));
+
+        engine.recover();
+
+        verify(waitlistPublisher).publish(eq(QUEUE), eq(new BookingMessage("b1")), any(MessagePostProcessor.class));
+        engine.recover();
+        verify(bookingRepository).markWaitlistPublished(List.of(lost));
+    }
+
+    @Test
+    void recover_WhenPublishStillInFlight_ShouldNotRepublish() {
+        Booking booking = waitlisted("b1");
+        when(waitlistPublisher.publish(eq(QUEUE), any(), any())).thenReturn(new CompletableFuture<>());
+        when(bookingRepository.findUnpublishedWaitlistedBookings(any(), anyInt())).thenReturn(List.of(booking));
+
+        engine.enqueue(booking, conference);
+        engine.recover();
+
+        verify(waitlistPublisher, times(1)).publish(eq(QUEUE), any(), any());
+        verify(bookingRepository, never()).markWaitlistPublished(anyCollection());
+    }
+
+    @Test
+    void promoteHeads_WhenTransactionCommits_ShouldAckAllPromotedMessagesInOneCall() throws Exception {
+        queueHeads("b1", "b2", "b3");
+        when(bookingRepository.promoteWaitlistedBookings(eq(List.of("b1", "b2", "b3")), any()))
+            .thenReturn(List.of("b1", "b2", "b3"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertEquals(List.of("b1", "b2", "b3"), engine.promoteHeads(conference, 3));
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        verify(channel).basicAck(3, true);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+        verify(channel).close();
+    }
+
+    @Test
+    void promoteHeads_WhenTransactionRollsBack_ShouldRequeueAllPromotedMessages() throws Exception {
+        queueHeads("b1", "b2");
+        when(bookingRepository.promoteWaitlistedBookings(any(), any())).thenReturn(List.of("b1", "b2"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        engine.promoteHeads(conference, 2);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(channel).basicNack(2, true, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(channel).close();
+    }
+
+    @Test
+    void promoteHeads_WhenNoTransaction_ShouldAckRightAway() throws Exception {
+        queueHeads("b1", "b2");
+        when(bookingRepository.promoteWaitlistedBookings(any(), any())).thenReturn(List.of("b2"));
+
+        // b1 left the waitlist in the meantime; its message is settled with the rest
+        assertEquals(List.of("b2"), engine.promoteHeads(conference, 2));
+
+        verify(channel).basicAck(2, true);
+        verify(channel).close();
+    }
+
+    @Test
+    void promoteHeads_WhenMessageMalformed_ShouldRejectItWithoutRequeue() throws Exception {
+        when(channel.basicGet(QUEUE, false)).thenReturn(
+            response(1, "not a booking message".getBytes(StandardCharsets.UTF_8)),
+            response(2, BookingMessageCodec.encode(new BookingMessage("b2"))),
+            null);
+        when(bookingRepository.promoteWaitlistedBookings(eq(List.of("b2")), any())).thenReturn(List.of("b2"));
+
+        assertEquals(List.of("b2"), engine.promoteHeads(conference, 2));
+
+        verify(channel).basicReject(1, false);
+        verify(channel).basicAck(2, true);
+    }
+
+    @Test
+    void promoteHeads_WhenPromotionFails_ShouldRequeueThatBatch() throws Exception {
+        queueHeads("b1", "b2");
+        when(bookingRepository.promoteWaitlistedBookings(any(), any()))
+            .thenThrow(new TransientDataAccessResourceException("connection reset"));
+
+        assertEquals(List.of(), engine.promoteHeads(conference, 2));
+
+        verify(channel).basicNack(1, false, true);
+        verify(channel).basicNack(2, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(channel).close();
+    }
+
+    private void queueHeads(String... bookingIds) throws IOException {
+        List<GetResponse> responses = new ArrayList<>();
+        for (int i = 0; i < bookingIds.length; i++) {
+            responses.add(response(i + 1, BookingMessageCodec.encode(new BookingMessage(bookingIds[i]))));
+        }
+        responses.add(null);
+        when(channel.basicGet(QUEUE, false)).thenReturn(responses.get(0),
+            responses.subList(1, responses.size()).toArray(GetResponse[]::new));
+    }
+
+    private static GetResponse response(long deliveryTag, byte[] body) {
+        return new GetResponse(new Envelope(deliveryTag, false, "", QUEUE), null, body, 0);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static Booking waitlisted(String id) {
+        return Booking.builder()
+            .id(id)
+            .userId("u-" + id)
+            .conferenceId("c1")
+            .bookingTime(BOOKED_AT)
+            .status(BookingStatus.WAITLISTED)
+            .build();
+    }
+}
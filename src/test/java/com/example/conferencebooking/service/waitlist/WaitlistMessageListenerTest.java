@@ -0,0 +1,127 @@
+package com.example.conferencebooking.service.waitlist;
+
+import com.example.conferencebooking.message.BookingMessage;
+import com.example.conferencebooking.repository.BookingRepository;
+import com.example.conferencebooking.service.expiry.BookingExpiryScheduler;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WaitlistMessageListenerTest {
+    private BookingRepository bookingRepository;
+    private BookingExpiryScheduler bookingExpiryScheduler;
+    private Channel channel;
+    private SimpleMeterRegistry meterRegistry;
+    private WaitlistMessageListener listener;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        bookingExpiryScheduler = mock(BookingExpiryScheduler.class);
+        channel = mock(Channel.class);
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new WaitlistMessageListener(bookingRepository, bookingExpiryScheduler, meterRegistry);
+    }
+
+    @Test
+    void handleWaitlistMessages_WhenBatchSucceeds_ShouldAckItWithOneCall() throws Exception {
+        // b2 left the waitlist in the meantime; its message is acked with the rest
+        when(bookingRepository.promoteWaitlistedBookings(eq(List.of("b1", "b2", "b3")), any()))
+            .thenReturn(List.of("b1", "b3"));
+
+        listener.handleWaitlistMessages(messages("b1", "b2", "b3"), channel);
+
+        verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+        verify(bookingExpiryScheduler).schedule(eq("b1"), any());
+        verify(bookingExpiryScheduler).schedule(eq("b3"), any());
+        verifyNoMoreInteractions(bookingExpiryScheduler);
+    }
+
+    @Test
+    void handleWaitlistMessages_WhenTransientError_ShouldRequeueWholeBatch() throws Exception {
+        when(bookingRepository.promoteWaitlistedBookings(any(), any()))
+            .thenThrow(new TransientDataAccessResourceException("connection reset"));
+
+        listener.handleWaitlistMessages(messages("b1", "b2", "b3"), channel);
+
+        verify(channel).basicNack(3, true, true);
+        verifyNoMoreInteractions(channel);
+        verify(bookingRepository, times(1)).promoteWaitlistedBookings(any(), any());
+        verifyNoInteractions(bookingExpiryScheduler);
+    }
+
+    @Test
+    void handleWaitlistMessages_WhenOtherError_ShouldRejectOnlyFailingMessages() throws Exception {
+        when(bookingRepository.promoteWaitlistedBookings(eq(List.of("b1", "b2", "b3")), any()))
+            .thenThrow(new DataIntegrityViolationException("bad row"));
+        when(bookingRepository.promoteWaitlistedBookings(eq(List.of("b1")), any())).thenReturn(List.of("b1"));
+        when(bookingRepository.promoteWaitlistedBookings(eq(List.of("b2")), any()))
+            .thenThrow(new DataIntegrityViolationException("bad row"));
+        when(bookingRepository.promoteWaitlistedBookings(eq(List.of("b3")), any()))
+            .thenThrow(new TransientDataAccessResourceException("connection reset"));
+
+        listener.handleWaitlistMessages(messages("b1", "b2", "b3"), channel);
+
+        verify(channel).basicAck(1, false);
+        verify(channel).basicNack(2, false, false);
+        verify(channel).basicNack(3, false, true);
+        verify(channel, never()).basicAck(anyLong(), eq(true));
+        verify(channel, never()).basicNack(anyLong(), eq(true), anyBoolean());
+        verify(bookingExpiryScheduler).schedule(eq("b1"), any());
+        verifyNoMoreInteractions(bookingExpiryScheduler);
+    }
+
+    @Test
+    void handleWaitlistMessages_ShouldRecordBatchOnceAndEveryMessage() throws Exception {
+        when(bookingRepository.promoteWaitlistedBookings(any(), any())).thenReturn(List.of());
+
+        listener.handleWaitlistMessages(messages("b1", "b2", "b3"), channel);
+        listener.handleWaitlistMessages(messages("b4", "b5"), channel);
+
+        assertEquals(2, meterRegistry.get("booking.waitlist.consumer.batch").timer().count());
+        assertEquals(5, meterRegistry.get("booking.waitlist.consumer.message").timer().count());
+        assertEquals(5, meterRegistry.get("booking.waitlist.consumer.messages").counter().count());
+    }
+
+    @Test
+    void handleWaitlistMessages_WhenRedelivered_ShouldCountRedeliveries() throws Exception {
+        when(bookingRepository.promoteWaitlistedBookings(any(), any())).thenReturn(List.of());
+        List<Message<BookingMessage>> batch = new ArrayList<>(messages("b1"));
+        batch.add(MessageBuilder.withPayload(new BookingMessage("b2"))
+            .setHeader(AmqpHeaders.DELIVERY_TAG, 2L)
+            .setHeader(AmqpHeaders.REDELIVERED, true)
+            .build());
+
+        listener.handleWaitlistMessages(batch, channel);
+
+        assertEquals(1, meterRegistry.get("booking.waitlist.consumer.redeliveries").counter().count());
+    }
+
+    // Delivery tags follow the order of the ids, starting at 1
+    private static List<Message<BookingMessage>> messages(String... bookingIds) {
+        List<Message<BookingMessage>> messages = new ArrayList<>();
+        for (int i = 0; i < bookingIds.length; i++) {
+            messages.add(MessageBuilder.withPayload(new BookingMessage(bookingIds[i]))
+                .setHeader(AmqpHeaders.DELIVERY_TAG, (long) i + 1)
+                .build());
+        }
+        return messages;
+    }
+}
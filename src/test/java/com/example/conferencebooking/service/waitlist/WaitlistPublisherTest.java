@@ -0,0 +1,161 @@
+package com.example.conferencebooking.service.waitlist;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class WaitlistPublisherTest {
+    private static final String QUEUE = "conference.waitlist.c1";
+    private static final MessagePostProcessor NO_OP = message -> message;
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+    private final List<WaitlistPublisher> publishers = new ArrayList<>();
+    private final CountDownLatch firstSendStarted = new CountDownLatch(1);
+    // Sends wait here until the test opens it, so later messages pile up behind the first batch
+    private volatile CountDownLatch sendGate = new CountDownLatch(0);
+    // Broker answer per message and attempt: true acks, false nacks, null never confirms
+    private volatile BiFunction<String, Integer, Boolean> broker = (payload, attempt) -> true;
+    private RabbitTemplate rabbitTemplate;
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        RabbitOperations operations = mock(RabbitOperations.class);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation -> {
+            int before = sent.size();
+            Object result = invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations);
+            batchSizes.add(sent.size() - before);
+            return result;
+        });
+        doAnswer(invocation -> {
+            firstSendStarted.countDown();
+            sendGate.await();
+            String payload = invocation.getArgument(2);
+            CorrelationData correlation = invocation.getArgument(4);
+            sent.add(payload);
+            Boolean ack = broker.apply(payload, attempts.merge(payload, 1, Integer::sum));
+            if (ack != null) {
+                correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nacked"));
+            }
+            return null;
+        }).when(operations).convertAndSend(anyString(), anyString(), any(),
+            any(MessagePostProcessor.class), any(CorrelationData.class));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        sendGate.countDown();
+        for (WaitlistPublisher publisher : publishers) {
+            publisher.close();
+        }
+    }
+
+    @Test
+    void publish_WhenMessagesQueueUpBehindABatch_ShouldSendThemAsOneBatch() throws Exception {
+        WaitlistPublisher publisher = publisher(100);
+        sendGate = new CountDownLatch(1);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        results.add(publisher.publish(QUEUE, "m1", NO_OP));
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS));
+        results.add(publisher.publish(QUEUE, "m2", NO_OP));
+        results.add(publisher.publish(QUEUE, "m3", NO_OP));
+        results.add(publisher.publish(QUEUE, "m4", NO_OP));
+        sendGate.countDown();
+
+        awaitAll(results);
+        assertEquals(List.of("m1", "m2", "m3", "m4"), sent);
+        assertEquals(List.of(1, 3), batchSizes);
+    }
+
+    @Test
+    void publish_WhenConfirmNacked_ShouldRetryAheadOfLaterMessages() throws Exception {
+        broker = (payload, attempt) -> !(payload.equals("m1") && attempt == 1);
+        WaitlistPublisher publisher = publisher(100);
+        sendGate = new CountDownLatch(1);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        results.add(publisher.publish(QUEUE, "m1", NO_OP));
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS));
+        results.add(publisher.publish(QUEUE, "m2", NO_OP));
+        results.add(publisher.publish(QUEUE, "m3", NO_OP));
+        sendGate.countDown();
+
+        awaitAll(results);
+        assertEquals(List.of("m1", "m1", "m2", "m3"), sent);
+    }
+
+    @Test
+    void publish_WhenConfirmTimesOut_ShouldRetry() throws Exception {
+        broker = (payload, attempt) -> attempt == 1 ? null : true;
+        WaitlistPublisher publisher = publisher(100);
+
+        publisher.publish(QUEUE, "m1", NO_OP).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("m1", "m1"), sent);
+    }
+
+    @Test
+    void publish_WhenEveryAttemptNacked_ShouldFailAfterMaxAttempts() {
+        broker = (payload, attempt) -> false;
+        WaitlistPublisher publisher = publisher(100);
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+            () -> publisher.publish(QUEUE, "m1", NO_OP).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(List.of("m1", "m1", "m1"), sent);
+    }
+
+    @Test
+    void publish_WhenBacklogFull_ShouldFailFastInsteadOfBlocking() throws Exception {
+        WaitlistPublisher publisher = publisher(1);
+        sendGate = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = publisher.publish(QUEUE, "m1", NO_OP);
+        CompletableFuture<Void> rejected = publisher.publish(QUEUE, "m2", NO_OP);
+
+        assertTrue(rejected.isCompletedExceptionally());
+        ExecutionException error = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+
+        sendGate.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("m1"), sent);
+    }
+
+    private WaitlistPublisher publisher(int maxInFlight) {
+        WaitlistPublisher publisher = new WaitlistPublisher(rabbitTemplate, 1, 10, maxInFlight,
+            Duration.ofMillis(100), 3);
+        publishers.add(publisher);
+        return publisher;
+    }
+
+    private static void awaitAll(List<CompletableFuture<Void>> results) throws Exception {
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+    }
+}